@@ -2,6 +2,7 @@ package com.cocoon._blog.controller;
 
 import com.cocoon._blog.dto.ChangePasswordRequest;
 import com.cocoon._blog.dto.FollowResponse;
+import com.cocoon._blog.dto.FollowStatusRequest;
 import com.cocoon._blog.dto.LoginRequest;
 import com.cocoon._blog.dto.RegisterRequest;
 import com.cocoon._blog.dto.UserDto;
@@ -10,10 +11,14 @@ import com.cocoon._blog.service.AuthService;
 import com.cocoon._blog.service.FollowService;
 import com.cocoon._blog.service.JwtService;
 import com.cocoon._blog.service.NotificationService;
+import com.cocoon._blog.service.SuggestionService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -25,6 +30,7 @@ public class AuthController {
 
     private final AuthService authService;
     private final FollowService followService;
+    private final SuggestionService suggestionService;
     private final NotificationService notificationService;
     private final JwtService jwtService;
 
@@ -107,8 +113,15 @@ public class AuthController {
     @GetMapping("/user/{id}")
     public ResponseEntity<UserDto> getUserById(
             @PathVariable Long id,
-            @AuthenticationPrincipal User currentUser) {
+            @AuthenticationPrincipal User currentUser,
+            WebRequest webRequest) {
         try {
+            // Unchanged profile: answer 304 before loading and mapping the user
+            String etag = authService.userEtag(id);
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                return null;
+            }
+
             User user = authService.getUserById(id);
             if (user == null) {
                 return ResponseEntity.notFound().build();
@@ -160,4 +173,66 @@ public class AuthController {
         boolean status = followService.isFollowing(currentUser.getId(), userId);
         return ResponseEntity.ok(Map.of("isFollowing", status));
     }
+
+    //  Follow flags for many users in one call (at most 500 ids)
+    @PostMapping("/follow/status")
+    public ResponseEntity<?> getFollowStatuses(
+            @Valid @RequestBody FollowStatusRequest request,
+            BindingResult bindingResult,
+            @AuthenticationPrincipal User currentUser) {
+        if (bindingResult.hasErrors()) {
+            String errors = bindingResult.getAllErrors()
+                    .stream()
+                    .map(err -> err.getDefaultMessage())
+                    .reduce((m1, m2) -> m1 + ", " + m2)
+                    .orElse("Invalid input");
+            return ResponseEntity.badRequest().body(errors);
+        }
+        if (currentUser == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
+        }
+
+        return ResponseEntity.ok(followService.getFollowStatuses(currentUser.getId(), request.getUserIds()));
+    }
+
+    //  Who to follow, from the viewer's second-degree follows
+    @GetMapping("/follow/suggestions")
+    public ResponseEntity<?> getSuggestions(
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            @AuthenticationPrincipal User currentUser) {
+        if (currentUser == null) {
+            return ResponseEntity.status(401).body(Map.of("error", "Authentication required"));
+        }
+        return ResponseEntity.ok(suggestionService.suggest(currentUser.getId(), limit));
+    }
+
+    //  Followers of a user by cursor (pass an empty or no cursor for the first page)
+    @GetMapping("/user/{id}/followers")
+    public ResponseEntity<?> getFollowers(
+            @PathVariable Long id,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @AuthenticationPrincipal User currentUser) {
+        try {
+            Long viewerId = currentUser == null ? null : currentUser.getId();
+            return ResponseEntity.ok(followService.getFollowersSlice(id, viewerId, cursor, size));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    //  Users a user follows by cursor
+    @GetMapping("/user/{id}/following")
+    public ResponseEntity<?> getFollowing(
+            @PathVariable Long id,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @AuthenticationPrincipal User currentUser) {
+        try {
+            Long viewerId = currentUser == null ? null : currentUser.getId();
+            return ResponseEntity.ok(followService.getFollowingSlice(id, viewerId, cursor, size));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 }
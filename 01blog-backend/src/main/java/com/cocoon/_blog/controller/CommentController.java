@@ -2,10 +2,8 @@ package com.cocoon._blog.controller;
 
 import com.cocoon._blog.dto.CommentDto;
 import com.cocoon._blog.dto.CommentRequest;
-import com.cocoon._blog.entity.NotificationType;
 import com.cocoon._blog.entity.User;
 import com.cocoon._blog.service.CommentService;
-import com.cocoon._blog.service.NotificationService;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -21,7 +19,6 @@ import org.springframework.web.bind.annotation.*;
 public class CommentController {
 
     private final CommentService commentService;
-    private final NotificationService notificationService;
 
     @PostMapping("/{postId}/comment")
     public ResponseEntity<?> createComment(
@@ -40,24 +37,9 @@ public class CommentController {
         }
 
         try {
-            // 1️⃣ Create the comment
+            // The post owner is notified through the outbox once the comment commits
             CommentDto commentResponse = commentService.createComment(postId, commentRequest, currentUser.getId());
 
-            // 2️⃣ Get the post owner ID
-            Long postOwnerId = commentService.getPostOwnerId(postId);
-
-            // 3️⃣ Send notification only if commenter is not the post owner
-            if (!currentUser.getId().equals(postOwnerId)) {
-                notificationService.createNotification(
-                        currentUser.getId(),
-                        postOwnerId,
-                        NotificationType.COMMENT,
-                        postId,
-                        commentResponse.getId(),
-                        "💬 commented on your post"
-                );
-            }
-
             return ResponseEntity.ok(commentResponse);
 
         } catch (Exception e) {
@@ -68,8 +50,14 @@ public class CommentController {
     @GetMapping("/{postId}/comments")
     public ResponseEntity<?> getComments(
             @PathVariable Long postId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
             @AuthenticationPrincipal User currentUser) {
         try {
+            // Cursor mode (pass an empty cursor for the first page); without it the full list is returned
+            if (cursor != null) {
+                return commentService.getCommentsSlice(postId, currentUser.getId(), cursor, size);
+            }
             return commentService.getCommentsByPost(postId, currentUser.getId());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Internal server error occurred");
@@ -1,14 +1,21 @@
 package com.cocoon._blog.controller;
 
+import com.cocoon._blog.dto.MarkReadRequest;
 import com.cocoon._blog.dto.NotificationDto;
 import com.cocoon._blog.entity.User;
 import com.cocoon._blog.service.NotificationService;
+import com.cocoon._blog.service.NotificationStreamRegistry;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -16,11 +23,18 @@ import java.util.List;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationStreamRegistry streamRegistry;
 
     @GetMapping
-    public ResponseEntity<List<NotificationDto>> getUserNotifications(
+    public ResponseEntity<?> getUserNotifications(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
             @AuthenticationPrincipal User currentUser) {
         try {
+            // Cursor mode (pass an empty cursor for the first page); without it the full list is returned
+            if (cursor != null) {
+                return ResponseEntity.ok(notificationService.getNotificationsSlice(currentUser.getId(), cursor, size));
+            }
             List<NotificationDto> notifications = notificationService.getUserNotifications(currentUser.getId());
             return ResponseEntity.ok(notifications);
         } catch (Exception e) {
@@ -29,6 +43,47 @@ public class NotificationController {
         }
     }
 
+    @GetMapping("/unread-count")
+    public ResponseEntity<?> getUnreadCount(@AuthenticationPrincipal User currentUser) {
+        try {
+            return ResponseEntity.ok(Map.of("count", notificationService.getUnreadCount(currentUser.getId())));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(403).build();
+        }
+    }
+
+    // Push channel: "notification" events carry a NotificationDto, "sync" events ask the client to reload
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal User currentUser) {
+        return streamRegistry.connect(currentUser.getId());
+    }
+
+    @PatchMapping("/read")
+    public ResponseEntity<?> markAllAsRead(
+            @Valid @RequestBody MarkReadRequest request,
+            BindingResult bindingResult,
+            @AuthenticationPrincipal User currentUser) {
+        if (bindingResult.hasErrors()) {
+            String errors = bindingResult.getAllErrors()
+                    .stream()
+                    .map(err -> err.getDefaultMessage())
+                    .reduce((m1, m2) -> m1 + ", " + m2)
+                    .orElse("Invalid input");
+            return ResponseEntity.badRequest().body(errors);
+        }
+
+        try {
+            int updated = notificationService.markAllAsRead(currentUser.getId(), request);
+            return ResponseEntity.ok(Map.of(
+                    "updated", updated,
+                    "unreadCount", notificationService.getUnreadCount(currentUser.getId())
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error marking notifications as read: " + e.getMessage());
+        }
+    }
+
     @PatchMapping("/{id}/read")
     public ResponseEntity<Void> markAsRead(
             @PathVariable Long id,
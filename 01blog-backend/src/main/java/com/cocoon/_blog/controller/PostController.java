@@ -1,20 +1,16 @@
 package com.cocoon._blog.controller;
 
-import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.cocoon._blog.dto.PostRequest;
-import com.cocoon._blog.entity.NotificationType;
 import com.cocoon._blog.entity.Post;
 import com.cocoon._blog.entity.User;
-import com.cocoon._blog.service.FollowService;
-import com.cocoon._blog.service.NotificationService;
 import com.cocoon._blog.service.PostService;
 
 import jakarta.validation.Valid;
@@ -27,8 +23,6 @@ import lombok.RequiredArgsConstructor;
 public class PostController {
 
     private final PostService postService;
-    private final NotificationService notificationService;
-    private final FollowService followService;
 
     @PostMapping("/create")
     public ResponseEntity<?> createPost(
@@ -46,26 +40,13 @@ public class PostController {
                 return ResponseEntity.badRequest().body(errors);
             }
 
-            HashSet<String> topics = new HashSet<>(List.of("tech", "gaming", "products", "education", "saas"));
-            if (!topics.contains(request.getTopic().toLowerCase())) {
-                return ResponseEntity.badRequest().body("Invalid topic. Allowed: " + topics);
+            if (!PostService.TOPICS.contains(PostService.normalizeTopic(request.getTopic()))) {
+                return ResponseEntity.badRequest().body("Invalid topic. Allowed: " + PostService.TOPICS);
             }
 
+            // Followers are notified through the outbox once the post commits
             Post post = postService.createPost(request, currentUser.getId());
 
-            var followers = followService.getFollowers(currentUser.getId());
-
-            for (Long followerId : followers) {
-                notificationService.createNotification(
-                        currentUser.getId(),
-                        followerId,
-                        NotificationType.POST,
-                        post.getId(),
-                        null,
-                        "posted something 📢"
-                );
-            }
-
             return ResponseEntity.ok(Map.of("message" , "Post created successfully" ,  "post", post));
 
         } catch (Exception e) {
@@ -78,21 +59,7 @@ public class PostController {
             @PathVariable Long id,
             @AuthenticationPrincipal User currentUser) {
         try {
-            var response = postService.likePost(id, currentUser.getId());
-            var postOwnerId = postService.getPostOwnerId(id);
-
-            if (!currentUser.getId().equals(postOwnerId)) {
-                notificationService.createNotification(
-                        currentUser.getId(),
-                        postOwnerId,
-                        NotificationType.POST,
-                        id,
-                        null,
-                        "liked your post 🤩"
-                );
-            }
-
-            return response;
+            return postService.likePost(id, currentUser.getId());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error liking post: " + e.getMessage());
         }
@@ -114,9 +81,8 @@ public class PostController {
                 return ResponseEntity.badRequest().body(errors);
             }
 
-            HashSet<String> topics = new HashSet<>(List.of("tech", "gaming", "products", "education", "saas"));
-            if (!topics.contains(request.getTopic().toLowerCase())) {
-                return ResponseEntity.badRequest().body("Invalid topic. Allowed: " + topics);
+            if (!PostService.TOPICS.contains(PostService.normalizeTopic(request.getTopic()))) {
+                return ResponseEntity.badRequest().body("Invalid topic. Allowed: " + PostService.TOPICS);
             }
 
             Post updatedPost = postService.updatePost(id, request, currentUser.getId());
@@ -142,9 +108,40 @@ public class PostController {
     public ResponseEntity<?> getAllPosts(
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "previewComments", defaultValue = "0") int previewComments,
+            @AuthenticationPrincipal User currentUser) {
+        try {
+            // Cursor mode (pass an empty cursor for the first page); page numbers stay as fallback
+            if (cursor != null) {
+                return postService.getFeedSlice(currentUser.getId(), cursor, size, previewComments);
+            }
+            return postService.getAllPosts(currentUser.getId(), page, size, previewComments);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error fetching posts: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrending(
+            @RequestParam(value = "topic", required = false) String topic,
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            @AuthenticationPrincipal User currentUser) {
+        try {
+            return postService.getTrending(topic, currentUser.getId(), limit);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error fetching trending posts: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/topic/{topic}")
+    public ResponseEntity<?> getPostsByTopic(
+            @PathVariable String topic,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size,
             @AuthenticationPrincipal User currentUser) {
         try {
-            return postService.getAllPosts(currentUser.getId(), page, size);
+            return postService.getTopicSlice(topic, currentUser.getId(), cursor, size);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching posts: " + e.getMessage());
         }
@@ -153,8 +150,13 @@ public class PostController {
     @GetMapping("/{id}")
     public ResponseEntity<?> getPostById(
             @PathVariable Long id,
-            @AuthenticationPrincipal User currentUser) {
+            @AuthenticationPrincipal User currentUser,
+            WebRequest webRequest) {
         try {
+            String etag = postService.postEtag(id, currentUser.getId());
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                return null;
+            }
             return postService.getPostsById(id, currentUser.getId());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching post: " + e.getMessage());
@@ -164,20 +166,38 @@ public class PostController {
     @GetMapping("/user/{userId}")
     public ResponseEntity<?> getPostByUserId(
             @PathVariable Long userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "stream", defaultValue = "false") boolean stream,
             @AuthenticationPrincipal User currentUser) {
         try {
-            return postService.getPostByUserId(userId, currentUser.getId());
+            return listPostsByUser(userId, currentUser.getId(), cursor, size, stream);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching posts: " + e.getMessage());
         }
     }
 
     @GetMapping("/mine")
-    public ResponseEntity<?> getMyPosts(@AuthenticationPrincipal User currentUser) {
+    public ResponseEntity<?> getMyPosts(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "stream", defaultValue = "false") boolean stream,
+            @AuthenticationPrincipal User currentUser) {
         try {
-            return postService.getMyPosts(currentUser.getId());
+            return listPostsByUser(currentUser.getId(), currentUser.getId(), cursor, size, stream);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching posts: " + e.getMessage());
         }
     }
+
+    // stream=true exports everything incrementally; a cursor (empty for the first page) pages; neither keeps the full list
+    private ResponseEntity<?> listPostsByUser(Long userId, Long currentUserId, String cursor, int size, boolean stream) {
+        if (stream) {
+            return postService.streamPostsByUserId(userId, currentUserId);
+        }
+        if (cursor != null) {
+            return postService.getPostsByUserSlice(userId, currentUserId, cursor, size);
+        }
+        return postService.getPostByUserId(userId, currentUserId);
+    }
 }
\ No newline at end of file
@@ -22,8 +22,7 @@ public class SearchController {
             @RequestParam(required = false) String query,
             @AuthenticationPrincipal User currentUser) {
         try {
-            // Optional: use currentUser.getId() for personalized search or access control
-            var results = searchService.search(query);
+            var results = searchService.search(query, currentUser.getId());
             return ResponseEntity.ok(Map.of(
                     "message", "Search results fetched successfully",
                     "data", results
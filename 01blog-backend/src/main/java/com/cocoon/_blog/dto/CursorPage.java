@@ -0,0 +1,30 @@
+package com.cocoon._blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.function.Function;
+
+// Slice-style page: no total count, just where to continue from
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private String nextCursor; // null on the last page
+    private boolean hasNext;
+
+    /**
+     * Build a page from rows queried with a limit of {@code limit + 1}: the extra row only
+     * tells that another page exists and is dropped. The kept rows are mapped as a whole
+     * (so mappers can batch their lookups) and the next cursor is the last kept row's position.
+     */
+    public static <R, T> CursorPage<T> of(List<R> rows, int limit,
+                                          Function<R, Cursor> position,
+                                          Function<List<R>, List<T>> mapper) {
+        boolean hasNext = rows.size() > limit;
+        List<R> page = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? position.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPage<>(mapper.apply(page), nextCursor, hasNext);
+    }
+}
@@ -0,0 +1,28 @@
+package com.cocoon._blog.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// A user in a followers/following list, built by JPQL constructor expressions in FollowersRepository
+@Data
+@NoArgsConstructor
+public class FollowCard {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String profilePic;
+    private LocalDateTime followedAt;
+
+    // Whether the viewer follows this user (false for anonymous viewers)
+    private boolean viewerFollows;
+
+    public FollowCard(Long id, String firstName, String lastName, String profilePic, LocalDateTime followedAt) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.profilePic = profilePic;
+        this.followedAt = followedAt;
+    }
+}
@@ -0,0 +1,12 @@
+package com.cocoon._blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Relationship between the viewer and one user
+@Data
+@AllArgsConstructor
+public class FollowStatus {
+    private boolean following;  // the viewer follows the user
+    private boolean followedBy; // the user follows the viewer
+}
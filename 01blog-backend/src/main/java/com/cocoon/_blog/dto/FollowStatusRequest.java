@@ -0,0 +1,16 @@
+package com.cocoon._blog.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+// Users whose relationship to the viewer is needed at once (e.g. every card on a screen)
+@Data
+public class FollowStatusRequest {
+
+    @NotEmpty(message = "Provide userIds")
+    @Size(max = 500, message = "At most 500 ids per request")
+    private List<Long> userIds;
+}
@@ -0,0 +1,20 @@
+package com.cocoon._blog.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Either every notification up to a position in the list (e.g. the newest one on screen) or an explicit list
+@Data
+public class MarkReadRequest {
+
+    private Long upToId;
+
+    // createdAt of that row as shown; without it the row's current position is used
+    private LocalDateTime upToCreatedAt;
+
+    @Size(max = 500, message = "At most 500 ids per request")
+    private List<Long> ids;
+}
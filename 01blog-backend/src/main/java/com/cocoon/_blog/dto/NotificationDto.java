@@ -3,6 +3,7 @@ package com.cocoon._blog.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @AllArgsConstructor
@@ -19,4 +20,8 @@ public class NotificationDto {
     // Add these IDs
     private Long postId;
     private Long commentId;  
+
+    // Grouped notifications: how many users acted, newest actors first
+    private int actorCount;
+    private List<Long> recentActorIds;
 }
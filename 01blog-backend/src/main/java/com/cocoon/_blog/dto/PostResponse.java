@@ -1,21 +1,27 @@
 package com.cocoon._blog.dto;
 
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.util.*;
 import java.time.*;
 
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
+@Builder
 public class PostResponse {
     private Long userId;
     private Long id;
     private String title;
     private String topic;
     private String banner;
-    private String description;
+    private String description; // only set on the post detail, list views carry the excerpt
     private List<String> videos;
+    private String excerpt;
+    private int wordCount;
     private LocalDateTime createdAt;
     private String firstName;
     private String lastName;
@@ -24,4 +30,5 @@ public class PostResponse {
     private int commentCount;
     private boolean isLiked;
     private boolean isHidden;
-}
\ No newline at end of file
+    private List<CommentDto> previewComments; // feed only, when previews are requested
+}
@@ -0,0 +1,28 @@
+package com.cocoon._blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// List-view row of a post: no description or videos, built by JPQL constructor expressions in PostRepository
+@Data
+@AllArgsConstructor
+public class PostSummary {
+    private Long id;
+    private String title;
+    private String topic;
+    private String banner;
+    private String excerpt;
+    private int wordCount;
+    private LocalDateTime createdAt;
+    private int likeCount;
+    private int commentCount;
+    private boolean isHidden;
+
+    // Author
+    private Long userId;
+    private String firstName;
+    private String lastName;
+    private String profilePic;
+}
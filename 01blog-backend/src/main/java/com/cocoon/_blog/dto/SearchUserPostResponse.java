@@ -25,4 +25,27 @@ public class SearchUserPostResponse {
     private String topic;
     private String banner;
     private LocalDateTime createdAt;
+
+    // Engagement (isLiked is filled in per page by SearchService)
+    private int likeCount;
+    private int commentCount;
+    private boolean isLiked;
+
+    // Used by the JPQL constructor expression in SearchPostUserRepository
+    public SearchUserPostResponse(Long userId, String firstName, String lastName, String profilePic, String bio,
+                                  Long postId, String title, String topic, String banner, LocalDateTime createdAt,
+                                  int likeCount, int commentCount) {
+        this.userId = userId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.profilePic = profilePic;
+        this.bio = bio;
+        this.postId = postId;
+        this.title = title;
+        this.topic = topic;
+        this.banner = banner;
+        this.createdAt = createdAt;
+        this.likeCount = likeCount;
+        this.commentCount = commentCount;
+    }
 }
@@ -0,0 +1,24 @@
+package com.cocoon._blog.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A "who to follow" card, built by a JPQL constructor expression in UserRepository
+@Data
+@NoArgsConstructor
+public class UserSuggestion {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String profilePic;
+
+    // How many of the viewer's followings follow this user
+    private int mutualCount;
+
+    public UserSuggestion(Long id, String firstName, String lastName, String profilePic) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.profilePic = profilePic;
+    }
+}
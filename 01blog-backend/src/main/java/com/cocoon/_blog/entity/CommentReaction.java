@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 @Builder
 @Table(
     name = "comment_reactions",
-    uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "comment_id"})
+    uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "comment_id"}),
+    indexes = @Index(name = "idx_comment_reaction_comment", columnList = "comment_id")
 )
 public class CommentReaction {
     @Id
@@ -6,7 +6,11 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "followers")
+@Table(name = "followers", indexes = {
+    // Keyset pages of a user's followers / followings, newest first
+    @Index(name = "idx_followers_following_followed", columnList = "following_id, followed_at, follower_id"),
+    @Index(name = "idx_followers_follower_followed", columnList = "follower_id, followed_at, following_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -5,7 +5,11 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notification_recipient_created", columnList = "recipient_id, created_at, id"),
+    @Index(name = "idx_notification_recipient_group", columnList = "recipient_id, group_key"),
+    @Index(name = "idx_notification_created", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -38,6 +42,17 @@ public class Notification {
     private Long postId;
     private Long commentId;
 
+    // Grouped notifications (likes, follows): one rolling row per recipient and group key
+    private String groupKey;
+
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "integer default 1")
+    private int actorCount = 1;
+
+    // Newest first, comma-separated, at most a few ids
+    @Column(length = 200)
+    private String recentActorIds;
+
 
 
 }
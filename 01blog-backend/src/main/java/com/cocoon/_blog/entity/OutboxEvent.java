@@ -0,0 +1,36 @@
+package com.cocoon._blog.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Domain event written in the same transaction as the change it describes, delivered later by OutboxDispatcher
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_processed", columnList = "processed_at, id")
+})
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String type;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload; // JSON
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Null until delivered (or given up on after too many attempts)
+    private LocalDateTime processedAt;
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int attempts;
+}
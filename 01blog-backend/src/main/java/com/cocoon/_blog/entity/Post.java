@@ -2,15 +2,22 @@ package com.cocoon._blog.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.regex.Pattern;
 
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@DynamicUpdate // entity saves must not overwrite concurrently incremented counters
+@Table(indexes = {
+    @Index(name = "idx_post_user_created", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_post_topic_hidden_created", columnList = "topic, is_hidden, created_at, id")
+})
 public class Post {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -29,6 +36,13 @@ public class Post {
 
     @ElementCollection
     private List<String> videos; // URLs only
+
+    // Plain-text start of the description and its length, shown by list views instead of the full body
+    @Column(length = 300)
+    private String excerpt;
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int wordCount;
     
     @Column(nullable = false)
     private boolean removed = false;
@@ -38,6 +52,41 @@ public class Post {
 
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Denormalized counters, kept in the same transaction as the like/comment writes
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int likeCount;
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int commentCount;
+
+    // Bumped on every change, including counter updates, to version conditional GETs
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
+    @PreUpdate
+    void bumpVersion() {
+        version++;
+    }
+
+    private static final int EXCERPT_LENGTH = 280;
+    private static final Pattern TAGS = Pattern.compile("<[^>]*>");
+    private static final Pattern SPACES = Pattern.compile("(&nbsp;|\\s)+");
+
+    // Recompute excerpt and wordCount; call whenever the description changes
+    public void refreshExcerpt() {
+        String text = description == null ? "" : description;
+        text = SPACES.matcher(TAGS.matcher(text).replaceAll(" ")).replaceAll(" ").trim();
+
+        wordCount = text.isEmpty() ? 0 : text.split(" ").length;
+
+        if (text.length() <= EXCERPT_LENGTH) {
+            excerpt = text;
+        } else {
+            int cut = text.lastIndexOf(' ', EXCERPT_LENGTH);
+            excerpt = text.substring(0, cut > 0 ? cut : EXCERPT_LENGTH) + "…";
+        }
+    }
+
     // Cascade delete post's comments
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Comment> comments;
@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 @Builder
 @Table(
     name = "post_reactions",
-    uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "post_id"})
+    uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "post_id"}),
+    indexes = @Index(name = "idx_post_reaction_post", columnList = "post_id")
 )
 public class PostReaction {
     @Id
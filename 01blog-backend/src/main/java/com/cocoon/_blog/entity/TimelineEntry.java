@@ -0,0 +1,32 @@
+package com.cocoon._blog.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// One row per (reader, post): the materialized home feed
+@Entity
+@Table(
+    name = "timelines",
+    indexes = {
+        @Index(name = "idx_timeline_user_created", columnList = "user_id, created_at, post_id"),
+        @Index(name = "idx_timeline_post", columnList = "post_id")
+    }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TimelineEntry {
+
+    @EmbeddedId
+    private TimelineEntryId id;
+
+    @Column(nullable = false)
+    private Long authorId;
+
+    // Copy of the post's createdAt so reads never touch the post table for ordering
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,15 @@
+package com.cocoon._blog.entity;
+
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimelineEntryId implements Serializable {
+    private Long userId; // timeline owner
+    private Long postId;
+}
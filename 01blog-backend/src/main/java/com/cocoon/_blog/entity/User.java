@@ -2,6 +2,7 @@ package com.cocoon._blog.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
@@ -21,7 +22,9 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
     "reports",
     "sentNotifications",
     "receivedNotifications",
-    "authorities"
+    "authorities",
+    "fanoutOnRead",
+    "version"
 })
 
 @Entity
@@ -30,6 +33,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@DynamicUpdate // entity saves must not overwrite concurrently incremented counters
 public class User implements UserDetails {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -51,6 +55,35 @@ public class User implements UserDetails {
     private String profilePic;
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Too many followers to push posts into their timelines: followers read this author on demand
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean fanoutOnRead;
+
+    // Denormalized profile counters (repaired nightly by CounterReconciliationJob)
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int postCount;
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int commentCount;
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int likeCount;
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int followersCount;
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int followingCount;
+
+    // Bumped on every change, including counter updates, to version conditional GETs
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
+    @PreUpdate
+    void bumpVersion() {
+        version++;
+    }
+
     //  Cascade delete user’s posts
     
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -0,0 +1,17 @@
+package com.cocoon._blog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A comment was added to a post
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentCreated {
+    private Long commentId;
+    private Long postId;
+    private Long postOwnerId;
+    private Long userId;
+    private String topic;
+}
@@ -0,0 +1,15 @@
+package com.cocoon._blog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A post was published
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostCreated {
+    private Long postId;
+    private Long authorId;
+    private String topic;
+}
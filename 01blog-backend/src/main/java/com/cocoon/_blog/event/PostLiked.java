@@ -0,0 +1,15 @@
+package com.cocoon._blog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A user liked or unliked a post (unlikes are delivered too, e.g. for trending)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostLiked {
+    private Long postId;
+    private Long userId;
+    private boolean liked;
+}
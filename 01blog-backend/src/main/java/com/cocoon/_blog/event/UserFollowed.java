@@ -0,0 +1,14 @@
+package com.cocoon._blog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A user started following another one
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserFollowed {
+    private Long followerId;
+    private Long followingId;
+}
@@ -4,10 +4,40 @@ import com.cocoon._blog.entity.CommentReaction;
 import com.cocoon._blog.entity.Comment;
 import com.cocoon._blog.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CommentReactionRepository extends JpaRepository<CommentReaction, Long> {
     Optional<CommentReaction> findByUserAndComment(User user, Comment comment);
     int countByComment(Comment comment);
-}
+
+    // [commentId, likeCount] for a page of comments (comments without likes are absent)
+    @Query("SELECT r.comment.id, COUNT(r) FROM CommentReaction r WHERE r.comment.id IN :commentIds GROUP BY r.comment.id")
+    List<Object[]> countByCommentIds(@Param("commentIds") Collection<Long> commentIds);
+
+    // Which of the given comments the user has liked
+    @Query("SELECT r.comment.id FROM CommentReaction r WHERE r.user.id = :userId AND r.comment.id IN :commentIds")
+    List<Long> findLikedCommentIds(@Param("userId") Long userId, @Param("commentIds") Collection<Long> commentIds);
+
+    // Like/unlike in one statement; returns [liked, likeCount] (see PostReactionRepository.toggle)
+    @Transactional
+    @Query(value = "WITH removed AS (" +
+                   "  DELETE FROM comment_reactions WHERE user_id = :userId AND comment_id = :commentId RETURNING 1" +
+                   "), added AS (" +
+                   "  INSERT INTO comment_reactions (user_id, comment_id, created_at) " +
+                   "  SELECT :userId, c.id, :now FROM comment c " +
+                   "  WHERE c.id = :commentId AND NOT EXISTS (SELECT 1 FROM removed) " +
+                   "  ON CONFLICT DO NOTHING RETURNING 1" +
+                   ") " +
+                   "SELECT NOT EXISTS (SELECT 1 FROM removed) AS liked, " +
+                   "(SELECT COUNT(*) FROM comment_reactions r WHERE r.comment_id = :commentId) " +
+                   "+ (SELECT COUNT(*) FROM added) - (SELECT COUNT(*) FROM removed) AS like_count",
+           nativeQuery = true)
+    List<Object[]> toggle(@Param("userId") Long userId, @Param("commentId") Long commentId, @Param("now") LocalDateTime now);
+}
\ No newline at end of file
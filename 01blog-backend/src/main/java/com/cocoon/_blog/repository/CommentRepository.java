@@ -4,9 +4,16 @@ import com.cocoon._blog.entity.Comment;
 import com.cocoon._blog.entity.Post;
 import com.cocoon._blog.entity.User;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 // import java.util.Optional;
 
@@ -14,4 +21,38 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findAllByPostOrderByCreatedAtDesc(Post post);
     long countByPost(Post post);
     long countByUser(User user);
+
+    @EntityGraph(attributePaths = {"user"})
+    Optional<Comment> findWithUserById(Long id);
+
+    // Comment pages of a post, newest first, authors joined (keyset on idx_comment_post_created)
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.post.id = :postId " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findPageByPostId(@Param("postId") Long postId, Limit limit);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.post.id = :postId " +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findPageAfter(@Param("postId") Long postId,
+                                @Param("createdAt") LocalDateTime createdAt,
+                                @Param("id") Long id,
+                                Limit limit);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user WHERE c.post.id = :postId ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findAllWithUserByPostId(@Param("postId") Long postId);
+
+    // Newest :perPost comments of each post in one windowed query:
+    // [id, postId, content, createdAt, firstName, lastName, profilePic, likeCount, liked]
+    @Query(value = "SELECT c.id, c.post_id, c.content, c.created_at, u.first_name, u.last_name, u.profile_pic, " +
+                   "(SELECT COUNT(*) FROM comment_reactions r WHERE r.comment_id = c.id) AS like_count, " +
+                   "EXISTS (SELECT 1 FROM comment_reactions r WHERE r.comment_id = c.id AND r.user_id = :userId) AS liked " +
+                   "FROM (SELECT c2.*, ROW_NUMBER() OVER (PARTITION BY c2.post_id ORDER BY c2.created_at DESC, c2.id DESC) AS rn " +
+                   "      FROM comment c2 WHERE c2.post_id IN (:postIds)) c " +
+                   "JOIN users u ON u.id = c.user_id " +
+                   "WHERE c.rn <= :perPost " +
+                   "ORDER BY c.post_id, c.rn",
+           nativeQuery = true)
+    List<Object[]> findPreviews(@Param("postIds") Collection<Long> postIds,
+                                @Param("userId") Long userId,
+                                @Param("perPost") int perPost);
 }
@@ -1,12 +1,17 @@
 package com.cocoon._blog.repository;
 
+import com.cocoon._blog.dto.FollowCard;
 import com.cocoon._blog.entity.Followers;
 import com.cocoon._blog.entity.FollowersId;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,7 +23,51 @@ public interface FollowersRepository extends JpaRepository<Followers, FollowersI
     int countById_FollowerId(Long followerId);   // following count
 
 
+    // Follow rows are not mapped on User, so a deleted user's edges are removed explicitly
+    @Modifying
+    @Query("DELETE FROM Followers f WHERE f.id.followerId = :userId OR f.id.followingId = :userId")
+    int deleteAllOf(@Param("userId") Long userId);
+
     // Get all IDs of users that a given user is following
     @Query("SELECT f.id.followingId FROM Followers f WHERE f.id.followerId = :userId")
     List<Long> findFollowingIdsByFollowerId(@Param("userId") Long userId);
+
+    @Query("SELECT f.id.followerId FROM Followers f WHERE f.id.followingId = :userId")
+    List<Long> findFollowerIdsByFollowingId(@Param("userId") Long userId);
+
+    // Which of the given users follow the author (e.g. the ones currently connected)
+    @Query("SELECT f.id.followerId FROM Followers f WHERE f.id.followingId = :authorId AND f.id.followerId IN :userIds")
+    List<Long> findFollowerIdsAmong(@Param("authorId") Long authorId, @Param("userIds") Collection<Long> userIds);
+
+    // Which of the given users the viewer follows (follow-back flags of a page)
+    @Query("SELECT f.id.followingId FROM Followers f WHERE f.id.followerId = :viewerId AND f.id.followingId IN :userIds")
+    List<Long> findFollowingIdsAmong(@Param("viewerId") Long viewerId, @Param("userIds") Collection<Long> userIds);
+
+    // Followers of a user as cards, newest first: keyset pages on idx_followers_following_followed
+    String FOLLOWER_CARD = "SELECT new com.cocoon._blog.dto.FollowCard(u.id, u.firstName, u.lastName, u.profilePic, f.followedAt) " +
+                           "FROM Followers f JOIN User u ON u.id = f.id.followerId WHERE f.id.followingId = :userId ";
+
+    @Query(FOLLOWER_CARD + "ORDER BY f.followedAt DESC, f.id.followerId DESC")
+    List<FollowCard> findFollowersFirstPage(@Param("userId") Long userId, Limit limit);
+
+    @Query(FOLLOWER_CARD + "AND (f.followedAt < :followedAt OR (f.followedAt = :followedAt AND f.id.followerId < :id)) " +
+           "ORDER BY f.followedAt DESC, f.id.followerId DESC")
+    List<FollowCard> findFollowersAfter(@Param("userId") Long userId,
+                                        @Param("followedAt") LocalDateTime followedAt,
+                                        @Param("id") Long id,
+                                        Limit limit);
+
+    // Users someone follows as cards, newest first: keyset pages on idx_followers_follower_followed
+    String FOLLOWING_CARD = "SELECT new com.cocoon._blog.dto.FollowCard(u.id, u.firstName, u.lastName, u.profilePic, f.followedAt) " +
+                            "FROM Followers f JOIN User u ON u.id = f.id.followingId WHERE f.id.followerId = :userId ";
+
+    @Query(FOLLOWING_CARD + "ORDER BY f.followedAt DESC, f.id.followingId DESC")
+    List<FollowCard> findFollowingFirstPage(@Param("userId") Long userId, Limit limit);
+
+    @Query(FOLLOWING_CARD + "AND (f.followedAt < :followedAt OR (f.followedAt = :followedAt AND f.id.followingId < :id)) " +
+           "ORDER BY f.followedAt DESC, f.id.followingId DESC")
+    List<FollowCard> findFollowingAfter(@Param("userId") Long userId,
+                                        @Param("followedAt") LocalDateTime followedAt,
+                                        @Param("id") Long id,
+                                        Limit limit);
 }
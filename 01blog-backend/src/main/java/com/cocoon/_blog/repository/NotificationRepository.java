@@ -2,9 +2,105 @@ package com.cocoon._blog.repository;
 
 import com.cocoon._blog.entity.Notification;
 import com.cocoon._blog.entity.User;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByRecipientOrderByCreatedAtDesc(User recipient);
+
+    @Query("SELECT n FROM Notification n JOIN FETCH n.sender WHERE n.recipient.id = :recipientId " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findAllWithSenderByRecipientId(@Param("recipientId") Long recipientId);
+
+    // Keyset pages on idx_notification_recipient_created, sender joined for the DTO
+    @Query("SELECT n FROM Notification n JOIN FETCH n.sender WHERE n.recipient.id = :recipientId " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPageByRecipientId(@Param("recipientId") Long recipientId, Limit limit);
+
+    @Query("SELECT n FROM Notification n JOIN FETCH n.sender WHERE n.recipient.id = :recipientId " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPageAfter(@Param("recipientId") Long recipientId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Limit limit);
+
+    long countByRecipientIdAndReadFalse(Long recipientId);
+
+    // The recipient's still-unread group row, if it was active within the window (locked for the update)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM Notification n WHERE n.recipient.id = :recipientId AND n.groupKey = :groupKey " +
+           "AND n.read = false AND n.createdAt > :since ORDER BY n.createdAt DESC")
+    List<Notification> findOpenGroup(@Param("recipientId") Long recipientId,
+                                     @Param("groupKey") String groupKey,
+                                     @Param("since") LocalDateTime since,
+                                     Limit limit);
+
+    // Returns 1 only when the notification was unread, so callers know whether the count changed
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.id = :id AND n.read = false")
+    int markReadIfUnread(@Param("id") Long id);
+
+    // Bulk mark-read of everything at or below a (createdAt, id) position, the order the list is shown in;
+    // only rows that were unread are counted, so the result is the exact unread delta
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.recipient.id = :recipientId AND n.read = false " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id <= :id))")
+    int markReadUpTo(@Param("recipientId") Long recipientId,
+                     @Param("createdAt") LocalDateTime createdAt,
+                     @Param("id") Long id);
+
+    @Query("SELECT n.createdAt FROM Notification n WHERE n.id = :id AND n.recipient.id = :recipientId")
+    Optional<LocalDateTime> findCreatedAtByIdAndRecipientId(@Param("id") Long id, @Param("recipientId") Long recipientId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true " +
+           "WHERE n.recipient.id = :recipientId AND n.id IN :ids AND n.read = false")
+    int markReadByIds(@Param("recipientId") Long recipientId, @Param("ids") Collection<Long> ids);
+
+    // Retention: delete one small chunk of old read notifications (idx_notification_created), oldest first
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM notifications WHERE id IN (" +
+                   "SELECT id FROM notifications WHERE read = true AND created_at < :before " +
+                   "ORDER BY created_at LIMIT :chunkSize)",
+           nativeQuery = true)
+    int purgeReadBefore(@Param("before") LocalDateTime before, @Param("chunkSize") int chunkSize);
+
+    @Query("SELECT n.recipient.id FROM Notification n WHERE n.id = :id")
+    Optional<Long> findRecipientIdById(@Param("id") Long id);
+
+    // Notify the next :chunkSize followers (by id, after :afterFollowerId) of a new post in one statement;
+    // returns the last follower id covered, or null when there were none left
+    @Transactional
+    @Query(value = "WITH batch AS (" +
+                   "  SELECT f.follower_id FROM followers f " +
+                   "  WHERE f.following_id = :authorId AND f.follower_id > :afterFollowerId " +
+                   "  ORDER BY f.follower_id LIMIT :chunkSize" +
+                   "), inserted AS (" +
+                   "  INSERT INTO notifications (recipient_id, sender_id, message, read, created_at, type, post_id) " +
+                   "  SELECT b.follower_id, :authorId, :message, false, :now, 'POST', :postId FROM batch b" +
+                   ") " +
+                   "SELECT MAX(follower_id) FROM batch",
+           nativeQuery = true)
+    Long fanOutPostChunk(@Param("authorId") Long authorId,
+                         @Param("postId") Long postId,
+                         @Param("message") String message,
+                         @Param("now") LocalDateTime now,
+                         @Param("afterFollowerId") long afterFollowerId,
+                         @Param("chunkSize") int chunkSize);
 }
@@ -0,0 +1,41 @@
+package com.cocoon._blog.repository;
+
+import com.cocoon._blog.entity.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Ids of undelivered events in order, walked with a keyset on id (idx_outbox_processed)
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.processedAt IS NULL AND e.id > :afterId ORDER BY e.id")
+    List<Long> findPendingIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Claim one pending event for the current transaction; another instance holding it is skipped, not waited for
+    @Query(value = "SELECT * FROM outbox_events WHERE id = :id AND processed_at IS NULL FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    Optional<OutboxEvent> claim(@Param("id") Long id);
+
+    // A delivery failed: count it, and give up once maxAttempts is reached
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, " +
+           "e.processedAt = CASE WHEN e.attempts + 1 >= :maxAttempts THEN :now ELSE NULL END " +
+           "WHERE e.id = :id AND e.processedAt IS NULL")
+    int markFailed(@Param("id") Long id, @Param("maxAttempts") int maxAttempts, @Param("now") LocalDateTime now);
+
+    // Delivered events are only kept for a while, removed in small chunks
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM outbox_events WHERE id IN (" +
+                   "SELECT id FROM outbox_events WHERE processed_at < :before ORDER BY processed_at LIMIT :chunkSize)",
+           nativeQuery = true)
+    int purgeProcessedBefore(@Param("before") LocalDateTime before, @Param("chunkSize") int chunkSize);
+}
@@ -3,12 +3,59 @@ package com.cocoon._blog.repository;
 import com.cocoon._blog.entity.PostReaction;
 import com.cocoon._blog.entity.Post;
 import com.cocoon._blog.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PostReactionRepository extends JpaRepository<PostReaction, Long> {
     Optional<PostReaction> findByUserAndPost(User user, Post post);
     long countByPost(Post post);
     long countByUser(User user);
-}
+    boolean existsByUserIdAndPostId(Long userId, Long postId);
+
+    // Which of the given posts the user has liked
+    @Query("SELECT r.post.id FROM PostReaction r WHERE r.user.id = :userId AND r.post.id IN :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
+    // All posts a user liked, sorted, for LikedPostCache (served by the (user_id, post_id) unique index)
+    @Query("SELECT r.post.id FROM PostReaction r WHERE r.user.id = :userId ORDER BY r.post.id")
+    List<Long> findPostIdsByUserId(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * Like/unlike in one statement: delete the reaction if present, otherwise insert it,
+     * and move both like counters by the same delta. Concurrent double-clicks hit
+     * ON CONFLICT DO NOTHING instead of the unique constraint. The counter rows are only
+     * touched when a reaction actually changed, so a no-op toggle or a missing post locks
+     * and rewrites nothing.
+     * Returns one row [liked, likeCount], or no row when the post does not exist.
+     */
+    @Transactional
+    @Query(value = "WITH removed AS (" +
+                   "  DELETE FROM post_reactions WHERE user_id = :userId AND post_id = :postId RETURNING 1" +
+                   "), added AS (" +
+                   "  INSERT INTO post_reactions (user_id, post_id, created_at) " +
+                   "  SELECT :userId, p.id, :now FROM post p " +
+                   "  WHERE p.id = :postId AND NOT EXISTS (SELECT 1 FROM removed) " +
+                   "  ON CONFLICT DO NOTHING RETURNING 1" +
+                   "), delta AS (" +
+                   "  SELECT (SELECT COUNT(*) FROM added) - (SELECT COUNT(*) FROM removed) AS d" +
+                   "), liker AS (" +
+                   "  UPDATE users SET like_count = like_count + (SELECT d FROM delta), version = version + 1 " +
+                   "  WHERE id = :userId AND (SELECT d FROM delta) <> 0" +
+                   "), counted AS (" +
+                   "  UPDATE post SET like_count = like_count + (SELECT d FROM delta), version = version + 1 " +
+                   "  WHERE id = :postId AND (SELECT d FROM delta) <> 0 RETURNING like_count" +
+                   ") " +
+                   "SELECT NOT EXISTS (SELECT 1 FROM removed) AS liked, " +
+                   "  COALESCE((SELECT like_count FROM counted), p.like_count) AS like_count " +
+                   "FROM post p WHERE p.id = :postId",
+           nativeQuery = true)
+    List<Object[]> toggle(@Param("userId") Long userId, @Param("postId") Long postId, @Param("now") LocalDateTime now);
+}
\ No newline at end of file
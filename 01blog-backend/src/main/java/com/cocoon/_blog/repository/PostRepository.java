@@ -1,14 +1,25 @@
 package com.cocoon._blog.repository;
 
+import com.cocoon._blog.dto.PostSummary;
 import com.cocoon._blog.entity.Post;
 import com.cocoon._blog.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
     List<Post> findByUser(User user);
@@ -18,9 +29,121 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     // Fetch posts from a list of users with pagination
     Page<Post> findByUserIdIn(List<Long> userIds, Pageable pageable);
 
-    @EntityGraph(attributePaths = {"user"})
-    Page<Post> findByUserIdInAndIsHiddenFalse(List<Long> userIds, Pageable pageable);
+    // List views select PostSummary rows: description (TOAST) and videos are never read
+    String SUMMARY = "SELECT new com.cocoon._blog.dto.PostSummary(p.id, p.title, p.topic, p.banner, p.excerpt, " +
+                     "p.wordCount, p.createdAt, p.likeCount, p.commentCount, p.isHidden, " +
+                     "u.id, u.firstName, u.lastName, u.profilePic) FROM Post p JOIN p.user u ";
 
-    @EntityGraph(attributePaths = {"user"})
-    List<Post> findByUserAndIsHiddenFalse(User user, Sort sort);
+    @Query(value = SUMMARY + "WHERE u.id IN :userIds AND p.isHidden = false",
+           countQuery = "SELECT COUNT(p) FROM Post p WHERE p.user.id IN :userIds AND p.isHidden = false")
+    Page<PostSummary> findSummariesByUserIds(@Param("userIds") List<Long> userIds, Pageable pageable);
+
+    @Query(SUMMARY + "WHERE u.id = :userId AND p.isHidden = false ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummary> findSummariesByUserId(@Param("userId") Long userId);
+
+    // Per-author keyset pages on idx_post_user_created
+    @Query(SUMMARY + "WHERE u.id = :userId AND p.isHidden = false ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummary> findAuthorFirstPage(@Param("userId") Long userId, Limit limit);
+
+    @Query(SUMMARY + "WHERE u.id = :userId AND p.isHidden = false " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummary> findAuthorAfter(@Param("userId") Long userId,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id,
+                                      Limit limit);
+
+    @Query("SELECT p.user.id FROM Post p WHERE p.id = :id")
+    Long findOwnerIdById(@Param("id") Long id);
+
+    @Query("SELECT p.likeCount FROM Post p WHERE p.id = :id")
+    Integer findLikeCountById(@Param("id") Long id);
+
+    // Null when the post is missing or hidden, "" when it has no topic
+    @Query("SELECT COALESCE(p.topic, '') FROM Post p WHERE p.id = :id AND p.isHidden = false")
+    String findVisibleTopicById(@Param("id") Long id);
+
+    // Topic feed: keyset pages on idx_post_topic_hidden_created (topics are stored lowercase)
+    @Query("SELECT p.id FROM Post p WHERE p.topic = :topic AND p.isHidden = false ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findTopicPostIds(@Param("topic") String topic, Limit limit);
+
+    @Query(SUMMARY + "WHERE p.topic = :topic AND p.isHidden = false ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummary> findTopicFirstPage(@Param("topic") String topic, Limit limit);
+
+    @Query(SUMMARY + "WHERE p.topic = :topic AND p.isHidden = false " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummary> findTopicAfter(@Param("topic") String topic,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Limit limit);
+
+    // One-off cleanup of topics stored before they were normalized
+    @Transactional
+    @Modifying
+    @Query("UPDATE Post p SET p.topic = LOWER(p.topic), p.version = p.version + 1 WHERE p.topic <> LOWER(p.topic)")
+    int normalizeTopics();
+
+    // Server-side cursor for exports: must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query(SUMMARY + "WHERE u.id = :userId AND p.isHidden = false ORDER BY p.createdAt DESC, p.id DESC")
+    Stream<PostSummary> streamSummariesByUserId(@Param("userId") Long userId);
+
+    // [postVersion, authorVersion] of a visible post, for conditional GETs
+    @Query("SELECT p.version, u.version FROM Post p JOIN p.user u WHERE p.id = :id AND p.isHidden = false")
+    List<Object[]> findVersionStamp(@Param("id") Long id);
+
+    @Query(SUMMARY + "WHERE p.id IN :ids AND p.isHidden = false")
+    List<PostSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // Keyset feed pages, newest first: no OFFSET scan and no COUNT query
+    @Query(SUMMARY + "WHERE u.id IN :userIds AND p.isHidden = false " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummary> findFeedFirstPage(@Param("userIds") List<Long> userIds, Limit limit);
+
+    @Query(SUMMARY + "WHERE u.id IN :userIds AND p.isHidden = false " +
+           "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummary> findFeedAfter(@Param("userIds") List<Long> userIds,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id,
+                                    Limit limit);
+
+    // Posts written before excerpts existed
+    List<Post> findByExcerptIsNull(Limit limit);
+
+    // Counter maintenance: atomic in-place increments, no read-modify-write
+    @Modifying
+    @Query("UPDATE Post p SET p.likeCount = p.likeCount + :delta, p.version = p.version + 1 WHERE p.id = :id")
+    int adjustLikeCount(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount + :delta, p.version = p.version + 1 WHERE p.id = :id")
+    int adjustCommentCount(@Param("id") Long id, @Param("delta") int delta);
+
+    // Before a user is deleted: their likes and comments on other authors' posts cascade away
+    @Modifying
+    @Query(value = "UPDATE post p SET like_count = p.like_count - c.likes, comment_count = p.comment_count - c.comments, " +
+                   "version = p.version + 1 FROM (" +
+                   "SELECT x.post_id, SUM(x.likes) AS likes, SUM(x.comments) AS comments FROM (" +
+                   "SELECT r.post_id, 1 AS likes, 0 AS comments FROM post_reactions r WHERE r.user_id = :userId " +
+                   "UNION ALL SELECT cm.post_id, 0, 1 FROM comment cm WHERE cm.user_id = :userId) x " +
+                   "GROUP BY x.post_id) c WHERE p.id = c.post_id AND p.user_id <> :userId",
+           nativeQuery = true)
+    int releaseCountsOf(@Param("userId") Long userId);
+
+    @Query("SELECT COALESCE(MAX(p.id), 0) FROM Post p")
+    long findMaxId();
+
+    // Repair drifted counters for one id range; each chunk commits on its own
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE post p SET like_count = c.likes, comment_count = c.comments, version = p.version + 1 FROM (" +
+                   "SELECT p2.id, " +
+                   "(SELECT COUNT(*) FROM post_reactions r WHERE r.post_id = p2.id) AS likes, " +
+                   "(SELECT COUNT(*) FROM comment cm WHERE cm.post_id = p2.id) AS comments " +
+                   "FROM post p2 WHERE p2.id BETWEEN :fromId AND :toId) c " +
+                   "WHERE p.id = c.id AND (p.like_count <> c.likes OR p.comment_count <> c.comments)",
+           nativeQuery = true)
+    int reconcileCounters(@Param("fromId") long fromId, @Param("toId") long toId);
 }
\ No newline at end of file
@@ -14,7 +14,7 @@ public interface SearchPostUserRepository extends JpaRepository<Post, Long> {
 
     @Query("SELECT new com.cocoon._blog.dto.SearchUserPostResponse(" +
            "u.id, u.firstName, u.lastName, u.profilePic, u.bio, " +
-           "p.id, p.title, p.topic, p.banner, p.createdAt) " +
+           "p.id, p.title, p.topic, p.banner, p.createdAt, p.likeCount, p.commentCount) " +
            "FROM Post p JOIN p.user u " +
            "WHERE ( :query IS NULL OR LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%')) " +
            "OR LOWER(u.firstName) LIKE LOWER(CONCAT('%', :query, '%')) " +
@@ -0,0 +1,86 @@
+package com.cocoon._blog.repository;
+
+import com.cocoon._blog.entity.TimelineEntry;
+import com.cocoon._blog.entity.TimelineEntryId;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TimelineRepository extends JpaRepository<TimelineEntry, TimelineEntryId> {
+
+    // Push a post into the timelines of all the author's followers and the author's own, in one statement
+    @Modifying
+    @Query(value = "INSERT INTO timelines (user_id, post_id, author_id, created_at) " +
+                   "SELECT f.follower_id, :postId, :authorId, :createdAt FROM followers f WHERE f.following_id = :authorId " +
+                   "UNION ALL SELECT :authorId, :postId, :authorId, :createdAt " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int fanOut(@Param("postId") Long postId,
+               @Param("authorId") Long authorId,
+               @Param("createdAt") LocalDateTime createdAt);
+
+    // Large accounts: only the author's own timeline, followers read it on demand
+    @Modifying
+    @Query(value = "INSERT INTO timelines (user_id, post_id, author_id, created_at) " +
+                   "VALUES (:authorId, :postId, :authorId, :createdAt) " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int pushToAuthor(@Param("postId") Long postId,
+                     @Param("authorId") Long authorId,
+                     @Param("createdAt") LocalDateTime createdAt);
+
+    // New follow: copy the author's newest posts into the follower's timeline
+    @Modifying
+    @Query(value = "INSERT INTO timelines (user_id, post_id, author_id, created_at) " +
+                   "SELECT :followerId, p.id, p.user_id, p.created_at FROM post p " +
+                   "WHERE p.user_id = :authorId AND p.is_hidden = false " +
+                   "ORDER BY p.created_at DESC LIMIT :limit " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int backfill(@Param("followerId") Long followerId,
+                 @Param("authorId") Long authorId,
+                 @Param("limit") int limit);
+
+    // Initial build from existing posts and follows
+    @Modifying
+    @Query(value = "INSERT INTO timelines (user_id, post_id, author_id, created_at) " +
+                   "SELECT f.follower_id, p.id, p.user_id, p.created_at FROM post p " +
+                   "JOIN followers f ON f.following_id = p.user_id " +
+                   "JOIN users u ON u.id = p.user_id " +
+                   "WHERE p.is_hidden = false AND u.fanout_on_read = false " +
+                   "UNION ALL SELECT p.user_id, p.id, p.user_id, p.created_at FROM post p WHERE p.is_hidden = false " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int rebuildAll();
+
+    @Modifying
+    @Query("UPDATE TimelineEntry t SET t.createdAt = :createdAt WHERE t.id.postId = :postId")
+    int updateCreatedAt(@Param("postId") Long postId, @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.id.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.id.userId = :userId AND t.authorId = :authorId")
+    int deleteByUserIdAndAuthorId(@Param("userId") Long userId, @Param("authorId") Long authorId);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.id.userId = :userId OR t.authorId = :userId")
+    int deleteByUserInvolved(@Param("userId") Long userId);
+
+    // Keyset range scans over one user's timeline, newest first
+    @Query("SELECT t FROM TimelineEntry t WHERE t.id.userId = :userId " +
+           "ORDER BY t.createdAt DESC, t.id.postId DESC")
+    List<TimelineEntry> findFirstPage(@Param("userId") Long userId, Limit limit);
+
+    @Query("SELECT t FROM TimelineEntry t WHERE t.id.userId = :userId " +
+           "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id.postId < :postId)) " +
+           "ORDER BY t.createdAt DESC, t.id.postId DESC")
+    List<TimelineEntry> findAfter(@Param("userId") Long userId,
+                                  @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("postId") Long postId,
+                                  Limit limit);
+}
@@ -1,10 +1,113 @@
 package com.cocoon._blog.repository;
 
+import com.cocoon._blog.dto.UserSuggestion;
 import com.cocoon._blog.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
-}
+
+    @Query("SELECT u.banned FROM User u WHERE u.id = :id")
+    Boolean findBannedById(@Param("id") Long id);
+
+    @Query("SELECT u.version FROM User u WHERE u.id = :id")
+    Long findVersionById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.fanoutOnRead = true WHERE u.id = :id")
+    int markFanoutOnRead(@Param("id") Long id);
+
+    // Followed accounts whose posts are not pushed into timelines
+    @Query("SELECT u.id FROM Followers f JOIN User u ON u.id = f.id.followingId " +
+           "WHERE f.id.followerId = :userId AND u.fanoutOnRead = true")
+    List<Long> findFanoutOnReadFollowingIds(@Param("userId") Long userId);
+
+    // Cards for follow suggestions; banned users are never suggested
+    @Query("SELECT new com.cocoon._blog.dto.UserSuggestion(u.id, u.firstName, u.lastName, u.profilePic) " +
+           "FROM User u WHERE u.id IN :ids AND (u.banned IS NULL OR u.banned = false)")
+    List<UserSuggestion> findSuggestionCards(@Param("ids") Collection<Long> ids);
+
+    // Counter maintenance: atomic in-place increments, no read-modify-write
+    @Modifying
+    @Query("UPDATE User u SET u.postCount = u.postCount + :delta, u.version = u.version + 1 WHERE u.id = :id")
+    int adjustPostCount(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE User u SET u.commentCount = u.commentCount + :delta, u.version = u.version + 1 WHERE u.id = :id")
+    int adjustCommentCount(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE User u SET u.likeCount = u.likeCount + :delta, u.version = u.version + 1 WHERE u.id = :id")
+    int adjustLikeCount(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE User u SET u.followersCount = u.followersCount + :delta, u.version = u.version + 1 WHERE u.id = :id")
+    int adjustFollowersCount(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE User u SET u.followingCount = u.followingCount + :delta, u.version = u.version + 1 WHERE u.id = :id")
+    int adjustFollowingCount(@Param("id") Long id, @Param("delta") int delta);
+
+    // Before a post is deleted: its likes and comments cascade away, so their authors give them back
+    @Modifying
+    @Query(value = "UPDATE users u SET like_count = u.like_count - c.likes, comment_count = u.comment_count - c.comments, " +
+                   "version = u.version + 1 FROM (" +
+                   "SELECT x.user_id, SUM(x.likes) AS likes, SUM(x.comments) AS comments FROM (" +
+                   "SELECT r.user_id, 1 AS likes, 0 AS comments FROM post_reactions r WHERE r.post_id = :postId " +
+                   "UNION ALL SELECT cm.user_id, 0, 1 FROM comment cm WHERE cm.post_id = :postId) x " +
+                   "GROUP BY x.user_id) c WHERE u.id = c.user_id",
+           nativeQuery = true)
+    int releaseCountsOnPost(@Param("postId") Long postId);
+
+    // Same for every post of a user about to be deleted (the user's own row is left alone)
+    @Modifying
+    @Query(value = "UPDATE users u SET like_count = u.like_count - c.likes, comment_count = u.comment_count - c.comments, " +
+                   "version = u.version + 1 FROM (" +
+                   "SELECT x.user_id, SUM(x.likes) AS likes, SUM(x.comments) AS comments FROM (" +
+                   "SELECT r.user_id, 1 AS likes, 0 AS comments FROM post_reactions r " +
+                   "JOIN post p ON p.id = r.post_id WHERE p.user_id = :authorId " +
+                   "UNION ALL SELECT cm.user_id, 0, 1 FROM comment cm " +
+                   "JOIN post p ON p.id = cm.post_id WHERE p.user_id = :authorId) x " +
+                   "WHERE x.user_id <> :authorId GROUP BY x.user_id) c WHERE u.id = c.user_id",
+           nativeQuery = true)
+    int releaseCountsOnPostsOf(@Param("authorId") Long authorId);
+
+    // Before a user's follow rows are deleted: the other side of each edge loses one
+    @Modifying
+    @Query(value = "UPDATE users u SET followers_count = u.followers_count - c.followers, " +
+                   "following_count = u.following_count - c.following, version = u.version + 1 FROM (" +
+                   "SELECT x.id, SUM(x.followers) AS followers, SUM(x.following) AS following FROM (" +
+                   "SELECT f.following_id AS id, 1 AS followers, 0 AS following FROM followers f WHERE f.follower_id = :userId " +
+                   "UNION ALL SELECT f.follower_id, 0, 1 FROM followers f WHERE f.following_id = :userId) x " +
+                   "GROUP BY x.id) c WHERE u.id = c.id",
+           nativeQuery = true)
+    int releaseFollowCountsOf(@Param("userId") Long userId);
+
+    @Query("SELECT COALESCE(MAX(u.id), 0) FROM User u")
+    long findMaxId();
+
+    // Repair drifted counters for one id range; each chunk commits on its own
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE users u SET post_count = c.posts, comment_count = c.comments, like_count = c.likes, " +
+                   "followers_count = c.followers, following_count = c.following, version = u.version + 1 FROM (" +
+                   "SELECT u2.id, " +
+                   "(SELECT COUNT(*) FROM post p WHERE p.user_id = u2.id) AS posts, " +
+                   "(SELECT COUNT(*) FROM comment cm WHERE cm.user_id = u2.id) AS comments, " +
+                   "(SELECT COUNT(*) FROM post_reactions r WHERE r.user_id = u2.id) AS likes, " +
+                   "(SELECT COUNT(*) FROM followers f WHERE f.following_id = u2.id) AS followers, " +
+                   "(SELECT COUNT(*) FROM followers f WHERE f.follower_id = u2.id) AS following " +
+                   "FROM users u2 WHERE u2.id BETWEEN :fromId AND :toId) c " +
+                   "WHERE u.id = c.id AND (u.post_count <> c.posts OR u.comment_count <> c.comments " +
+                   "OR u.like_count <> c.likes OR u.followers_count <> c.followers OR u.following_count <> c.following)",
+           nativeQuery = true)
+    int reconcileCounters(@Param("fromId") long fromId, @Param("toId") long toId);
+}
\ No newline at end of file
@@ -1,11 +1,14 @@
 package com.cocoon._blog.service;
 
+import static com.cocoon._blog.service.TransactionHooks.afterCommit;
+
 import com.cocoon._blog.dto.AdminPostDto;
 import com.cocoon._blog.dto.AdminReportDto;
 import com.cocoon._blog.dto.AdminUserDto;
 import com.cocoon._blog.entity.Post;
 import com.cocoon._blog.entity.Report;
 import com.cocoon._blog.entity.User;
+import com.cocoon._blog.repository.FollowersRepository;
 import com.cocoon._blog.repository.PostRepository;
 import com.cocoon._blog.repository.ReportRepository;
 import com.cocoon._blog.repository.UserRepository;
@@ -23,20 +26,26 @@ public class AdminService {
     private final UserRepository userRepository;
     private final PostRepository postRepository;
     private final ReportRepository reportRepository;
+    private final FollowersRepository followersRepository;
+    private final TimelineService timelineService;
+    private final LikedPostCache likedPostCache;
+    private final TopicFeedCache topicFeedCache;
+    private final TrendingService trendingService;
+    private final UnreadCountCache unreadCountCache;
+    private final FollowGraph followGraph;
 
     // ===================== USERS =====================
 
     public List<AdminUserDto> getAllUsers() {
         return userRepository.findAll().stream().map(user -> {
             String username = user.getFirstName() + "_" + user.getLastName();
-            int postsCount = (int) postRepository.countByUser(user);
             String status = user.getBanned() ? "banned" : "active";
             return new AdminUserDto(
                     user.getId(),
                     username,
                     user.getEmail(),
                     user.getCreatedAt(),
-                    postsCount,
+                    user.getPostCount(),
                     status
             );
         }).collect(Collectors.toList());
@@ -74,7 +83,18 @@ public class AdminService {
         if (user.getRole().name().equals("ADMIN")) {
             throw new RuntimeException("Cannot delete an admin user");
         }
+        // Counters on the other side of every cascaded like, comment and follow
+        userRepository.releaseCountsOnPostsOf(id);
+        postRepository.releaseCountsOf(id);
+        userRepository.releaseFollowCountsOf(id);
+        followersRepository.deleteAllOf(id);
         userRepository.delete(user);
+        timelineService.removeUser(id);
+        afterCommit(() -> likedPostCache.evict(id));
+        followGraph.onUserDeleted(id);
+        topicFeedCache.invalidateAll();
+        // The user's sent notifications were cascaded away, from any number of recipients
+        afterCommit(unreadCountCache::clear);
     }
 
     // ===================== POSTS =====================
@@ -100,9 +120,14 @@ public class AdminService {
     public void removePost(Long id) {
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
+        userRepository.releaseCountsOnPost(id);
         // post.setRemoved(true);
         // postRepository.save(post);
         postRepository.delete(post);
+        userRepository.adjustPostCount(post.getUser().getId(), -1);
+        timelineService.remove(id);
+        topicFeedCache.invalidate(post.getTopic());
+        trendingService.forget(id);
     }
 
     @Transactional
@@ -111,6 +136,8 @@ public class AdminService {
                 .orElseThrow(() -> new RuntimeException("Post not found"));
         post.setHidden(false);
         postRepository.save(post);
+        timelineService.publish(post);
+        topicFeedCache.invalidate(post.getTopic());
     }
 
     @Transactional
@@ -119,14 +146,21 @@ public class AdminService {
                 .orElseThrow(() -> new RuntimeException("Post not found"));
         post.setHidden(true);
         postRepository.save(post);
+        timelineService.remove(id);
+        topicFeedCache.invalidate(post.getTopic());
+        trendingService.forget(id);
     }
 
     @Transactional
     public void deletePost(Long id) {
-        if (!postRepository.existsById(id)) {
-            throw new RuntimeException("Post not found");
-        }
-        postRepository.deleteById(id);
+        Post post = postRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Post not found"));
+        userRepository.releaseCountsOnPost(id);
+        postRepository.delete(post);
+        userRepository.adjustPostCount(post.getUser().getId(), -1);
+        timelineService.remove(id);
+        topicFeedCache.invalidate(post.getTopic());
+        trendingService.forget(id);
     }
 
     // ===================== REPORTS =====================
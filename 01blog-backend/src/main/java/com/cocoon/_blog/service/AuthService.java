@@ -7,10 +7,6 @@ import com.cocoon._blog.dto.UserDto;
 import com.cocoon._blog.entity.Role;
 import com.cocoon._blog.entity.User;
 import com.cocoon._blog.exception.UserBannedException;
-import com.cocoon._blog.repository.CommentRepository;
-import com.cocoon._blog.repository.FollowersRepository;
-import com.cocoon._blog.repository.PostReactionRepository;
-import com.cocoon._blog.repository.PostRepository;
 import com.cocoon._blog.repository.UserRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -23,10 +19,6 @@ public class AuthService {
 
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
-    private final PostRepository postRepository;
-    private final CommentRepository commentRepository;
-    private final PostReactionRepository postReactionRepository;
-    private final FollowersRepository followersRepository;
     private final UserRepository userRepository;
 
     //  Register new user
@@ -85,14 +77,14 @@ public class AuthService {
         return user;
     }
 
-    //  Convert user to DTO
-    public UserDto toUserDto(User user) {
-        int postCount = (int) postRepository.countByUser(user);
-        int commentCount = (int) commentRepository.countByUser(user);
-        int likeCount = (int) postReactionRepository.countByUser(user);
-        int followersCount = followersRepository.countById_FollowingId(user.getId());
-        int followingCount = followersRepository.countById_FollowerId(user.getId());
+    //  ETag of a profile response, or null when the user does not exist
+    public String userEtag(Long id) {
+        Long version = userRepository.findVersionById(id);
+        return version == null ? null : "user-" + id + "-" + version;
+    }
 
+    //  Convert user to DTO (counters are denormalized on the user row)
+    public UserDto toUserDto(User user) {
         return new UserDto(
                 user.getId(),
                 user.getFirstName(),
@@ -101,11 +93,11 @@ public class AuthService {
                 user.getBio(),
                 user.getProfilePic(),
                 user.getRole(),
-                postCount,
-                commentCount,
-                likeCount,
-                followersCount,
-                followingCount
+                user.getPostCount(),
+                user.getCommentCount(),
+                user.getLikeCount(),
+                user.getFollowersCount(),
+                user.getFollowingCount()
         );
     }
 
@@ -1,18 +1,28 @@
 package com.cocoon._blog.service;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.cocoon._blog.dto.CommentDto;
 import com.cocoon._blog.dto.CommentRequest;
+import com.cocoon._blog.dto.Cursor;
+import com.cocoon._blog.dto.CursorPage;
 import com.cocoon._blog.entity.Comment;
-import com.cocoon._blog.entity.CommentReaction;
 import com.cocoon._blog.entity.Post;
 import com.cocoon._blog.entity.User;
+import com.cocoon._blog.event.CommentCreated;
 import com.cocoon._blog.exception.UserBannedException;
 import com.cocoon._blog.repository.CommentReactionRepository;
 import com.cocoon._blog.repository.CommentRepository;
@@ -24,13 +34,16 @@ import lombok.RequiredArgsConstructor;
 @Service
 @RequiredArgsConstructor
 public class CommentService {
+    private static final int MAX_SLICE_SIZE = 50;
 
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final PostRepository postRepository;
     private final CommentReactionRepository commentReactionRepository;
+    private final OutboxService outboxService;
 
     //  Create a new comment
+    @Transactional
     public CommentDto createComment(Long postId, CommentRequest request, Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -51,58 +64,105 @@ public class CommentService {
                 .build();
 
         Comment savedComment = commentRepository.save(comment);
-        return mapToDto(savedComment, userId);
+        postRepository.adjustCommentCount(postId, 1);
+        userRepository.adjustCommentCount(userId, 1);
+        outboxService.publish(new CommentCreated(savedComment.getId(), postId, post.getUser().getId(), userId, post.getTopic()));
+        return toDto(savedComment, 0, false);
     }
 
     //  Get comments for a post
     public ResponseEntity<List<CommentDto>> getCommentsByPost(Long postId, Long currentUserId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
+        if (!postRepository.existsById(postId)) {
+            throw new RuntimeException("Post not found");
+        }
 
-        List<Comment> comments = commentRepository.findAllByPostOrderByCreatedAtDesc(post);
+        return ResponseEntity.ok(mapToDtos(commentRepository.findAllWithUserByPostId(postId), currentUserId));
+    }
 
-        List<CommentDto> dtos = comments.stream()
-                .map(comment -> mapToDto(comment, currentUserId))
-                .toList();
+    //  Get a page of comments by cursor: one page query, one like-count query, one liked-flag query
+    public ResponseEntity<CursorPage<CommentDto>> getCommentsSlice(Long postId, Long currentUserId, String cursor, int size) {
+        if (!postRepository.existsById(postId)) {
+            throw new RuntimeException("Post not found");
+        }
+
+        int limit = Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+        Cursor after = Cursor.decode(cursor);
 
-        return ResponseEntity.ok(dtos);
+        List<Comment> comments = after == null
+                ? commentRepository.findPageByPostId(postId, Limit.of(limit + 1))
+                : commentRepository.findPageAfter(postId, after.getCreatedAt(), after.getId(), Limit.of(limit + 1));
+
+        return ResponseEntity.ok(CursorPage.of(comments, limit,
+                c -> new Cursor(c.getCreatedAt(), c.getId()),
+                page -> mapToDtos(page, currentUserId)));
     }
 
-    //  Like or unlike a comment
+    //  Like or unlike a comment (one toggle statement plus the comment itself)
+    @Transactional
     public ResponseEntity<CommentDto> likeComment(Long commentId, Long userId) {
-        Comment comment = commentRepository.findById(commentId)
+        // Prevent banned users from liking/unliking comments
+        if (Boolean.TRUE.equals(userRepository.findBannedById(userId))) {
+            throw new UserBannedException("Your account has been banned. You cannot react to comments.");
+        }
+
+        Object[] result = commentReactionRepository.toggle(userId, commentId, LocalDateTime.now()).get(0);
+
+        Comment comment = commentRepository.findWithUserById(commentId)
                 .orElseThrow(() -> new RuntimeException("Comment not found"));
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return ResponseEntity.ok(toDto(comment, ((Number) result[1]).intValue(), (Boolean) result[0]));
+    }
 
-        // Prevent banned users from liking/unliking comments
-        if (user.getBanned()) {
-            throw new UserBannedException("Your account has been banned. You cannot react to comments.");
+    //  Newest comments of each post in the page, grouped by post id (one query for the whole page)
+    public Map<Long, List<CommentDto>> previewComments(Collection<Long> postIds, Long currentUserId, int perPost) {
+        Map<Long, List<CommentDto>> previews = new HashMap<>();
+        if (postIds.isEmpty() || perPost <= 0) {
+            return previews;
         }
 
-        boolean isLiked = commentReactionRepository.findByUserAndComment(user, comment)
-                .map(existingReaction -> {
-                    commentReactionRepository.delete(existingReaction);
-                    return false; // removed like
-                })
-                .orElseGet(() -> {
-                    CommentReaction reaction = CommentReaction.builder()
-                            .user(user)
-                            .comment(comment)
-                            .createdAt(LocalDateTime.now())
-                            .build();
-                    commentReactionRepository.save(reaction);
-                    return true; // added like
-                });
-
-        CommentDto dto = mapToDto(comment, userId);
-        dto.setLiked(isLiked);
-        return ResponseEntity.ok(dto);
+        // 0 matches no user: binding a null id to the native query trips Postgres type inference
+        Long viewerId = currentUserId != null ? currentUserId : 0L;
+        for (Object[] row : commentRepository.findPreviews(postIds, viewerId, perPost)) {
+            CommentDto dto = new CommentDto();
+            dto.setId(((Number) row[0]).longValue());
+            dto.setContent((String) row[2]);
+            dto.setCreatedAt(toLocalDateTime(row[3]));
+            dto.setFirstName((String) row[4]);
+            dto.setLastName((String) row[5]);
+            dto.setProfilePic((String) row[6]);
+            dto.setLikeCount(((Number) row[7]).intValue());
+            dto.setLiked((Boolean) row[8]);
+            previews.computeIfAbsent(((Number) row[1]).longValue(), k -> new ArrayList<>()).add(dto);
+        }
+        return previews;
     }
 
-    //  Helper to map Comment entity to DTO
-    private CommentDto mapToDto(Comment comment, Long currentUserId) {
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp ts ? ts.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    //  Map comments (authors already fetched) with grouped like counts and liked flags
+    private List<CommentDto> mapToDtos(List<Comment> comments, Long currentUserId) {
+        if (comments.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = comments.stream().map(Comment::getId).toList();
+
+        Map<Long, Integer> likeCounts = new HashMap<>();
+        for (Object[] row : commentReactionRepository.countByCommentIds(ids)) {
+            likeCounts.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+
+        Set<Long> liked = currentUserId == null ? Set.of()
+                : new HashSet<>(commentReactionRepository.findLikedCommentIds(currentUserId, ids));
+
+        return comments.stream()
+                .map(comment -> toDto(comment, likeCounts.getOrDefault(comment.getId(), 0), liked.contains(comment.getId())))
+                .toList();
+    }
+
+    private CommentDto toDto(Comment comment, int likeCount, boolean isLiked) {
         CommentDto dto = new CommentDto();
         dto.setId(comment.getId());
         dto.setContent(comment.getContent());
@@ -110,12 +170,6 @@ public class CommentService {
         dto.setFirstName(comment.getUser().getFirstName());
         dto.setLastName(comment.getUser().getLastName());
         dto.setProfilePic(comment.getUser().getProfilePic());
-
-        int likeCount = commentReactionRepository.countByComment(comment);
-        boolean isLiked = currentUserId != null &&
-                commentReactionRepository.findByUserAndComment(
-                        userRepository.findById(currentUserId).orElse(null), comment).isPresent();
-
         dto.setLikeCount(likeCount);
         dto.setLiked(isLiked);
         return dto;
@@ -128,6 +182,7 @@ public class CommentService {
         return post.getUser().getId();
     }
 
+@Transactional
 public ResponseEntity<?> deleteComment(Long commentId, Long currentUserId) {
     Comment comment = commentRepository.findById(commentId)
             .orElseThrow(() -> new RuntimeException("Comment not found"));
@@ -148,6 +203,8 @@ public ResponseEntity<?> deleteComment(Long commentId, Long currentUserId) {
 
     //  Proceed with deletion
     commentRepository.deleteById(commentId);
+    postRepository.adjustCommentCount(comment.getPost().getId(), -1);
+    userRepository.adjustCommentCount(commentOwner.getId(), -1);
     return ResponseEntity.ok(Map.of("message", "Comment deleted successfully."));
 }
 
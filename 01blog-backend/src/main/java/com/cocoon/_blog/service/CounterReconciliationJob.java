@@ -0,0 +1,50 @@
+package com.cocoon._blog.service;
+
+import com.cocoon._blog.repository.PostRepository;
+import com.cocoon._blog.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Repairs drift in the denormalized post/user counters.
+ * The delete paths release the counters of cascaded likes, comments and follows themselves;
+ * this is the safety net, recomputing the counters in small id ranges to keep locks short.
+ */
+@Component
+@RequiredArgsConstructor
+public class CounterReconciliationJob {
+
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+
+    @Value("${counters.reconcile.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${counters.reconcile.on-startup:false}")
+    private boolean reconcileOnStartup;
+
+    // Full pass at boot: enable once to fill the columns when they are added to an existing database
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileAtStartup() {
+        if (reconcileOnStartup) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(cron = "${counters.reconcile.cron:0 30 3 * * *}")
+    public void reconcile() {
+        long maxPostId = postRepository.findMaxId();
+        for (long from = 1; from <= maxPostId; from += chunkSize) {
+            postRepository.reconcileCounters(from, from + chunkSize - 1);
+        }
+
+        long maxUserId = userRepository.findMaxId();
+        for (long from = 1; from <= maxUserId; from += chunkSize) {
+            userRepository.reconcileCounters(from, from + chunkSize - 1);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.cocoon._blog.service;
+
+import static com.cocoon._blog.service.TransactionHooks.afterCommit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cocoon._blog.entity.FollowersId;
+import com.cocoon._blog.repository.FollowersRepository;
+
+/**
+ * The whole follow graph in memory (enabled with {@code follows.graph.enabled}).
+ *
+ * Both directions are kept as sorted {@code long[]} adjacency lists per user, about
+ * 16 bytes per edge plus one array header per user. Arrays are never modified once
+ * published: a follow or unfollow copies the affected two arrays, so reads take no lock.
+ * The graph is loaded at startup by streaming the followers table; until then, and when
+ * disabled, every query is answered by the repository.
+ */
+@Component
+public class FollowGraph {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final FollowersRepository followersRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int fetchSize;
+
+    private volatile Map<Long, long[]> following = new ConcurrentHashMap<>();
+    private volatile Map<Long, long[]> followers = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    // Changes committed while the graph is loading, replayed on top of it (guarded by this):
+    // {follower, following, 1|0} for a follow or unfollow, {user} for a deleted user
+    private List<long[]> journal = new ArrayList<>();
+
+    public FollowGraph(FollowersRepository followersRepository,
+                       JdbcTemplate jdbcTemplate,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${follows.graph.enabled:true}") boolean enabled,
+                       @Value("${follows.graph.fetch-size:10000}") int fetchSize) {
+        this.followersRepository = followersRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.fetchSize = fetchSize;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isFollowing(Long followerId, Long followingId) {
+        if (!ready) {
+            return followersRepository.existsById(new FollowersId(followerId, followingId));
+        }
+        return Arrays.binarySearch(following.getOrDefault(followerId, EMPTY), followingId) >= 0;
+    }
+
+    //  Ids the user follows, ascending
+    public List<Long> followingOf(Long userId) {
+        if (!ready) {
+            return followersRepository.findFollowingIdsByFollowerId(userId);
+        }
+        return toList(following.getOrDefault(userId, EMPTY));
+    }
+
+    //  Ids following the user, ascending
+    public List<Long> followersOf(Long userId) {
+        if (!ready) {
+            return followersRepository.findFollowerIdsByFollowingId(userId);
+        }
+        return toList(followers.getOrDefault(userId, EMPTY));
+    }
+
+    public int followerCount(Long userId) {
+        if (!ready) {
+            return followersRepository.countById_FollowingId(userId);
+        }
+        return followers.getOrDefault(userId, EMPTY).length;
+    }
+
+    public int followingCount(Long userId) {
+        if (!ready) {
+            return followersRepository.countById_FollowerId(userId);
+        }
+        return following.getOrDefault(userId, EMPTY).length;
+    }
+
+    //  Which of the given users follow the author
+    public List<Long> followersAmong(Long authorId, Collection<Long> userIds) {
+        if (!ready) {
+            return followersRepository.findFollowerIdsAmong(authorId, userIds);
+        }
+        return among(followers.getOrDefault(authorId, EMPTY), userIds);
+    }
+
+    //  Which of the given users the viewer follows
+    public List<Long> followingAmong(Long viewerId, Collection<Long> userIds) {
+        if (!ready) {
+            return followersRepository.findFollowingIdsAmong(viewerId, userIds);
+        }
+        return among(following.getOrDefault(viewerId, EMPTY), userIds);
+    }
+
+    //  Sorted ids the user follows, for set operations over the graph (null until loaded); never modify it
+    long[] followingArray(Long userId) {
+        return ready ? following.getOrDefault(userId, EMPTY) : null;
+    }
+
+    //  Edge changes are applied once the follow or unfollow commits
+    public void onFollow(Long followerId, Long followingId) {
+        afterCommit(() -> apply(followerId, followingId, true));
+    }
+
+    public void onUnfollow(Long followerId, Long followingId) {
+        afterCommit(() -> apply(followerId, followingId, false));
+    }
+
+    //  The user's rows were cascaded away: drop every edge in both directions
+    public void onUserDeleted(Long userId) {
+        afterCommit(() -> removeUser(userId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        Map<Long, LongList> out = new HashMap<>();
+        Map<Long, LongList> in = new HashMap<>();
+        long[] edges = { 0 };
+
+        // Server-side cursor (needs a transaction on PostgreSQL), rows never held all at once
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(fetchSize);
+        transactionTemplate.executeWithoutResult(status -> streaming.query(
+                "SELECT follower_id, following_id FROM followers",
+                rs -> {
+                    long followerId = rs.getLong(1);
+                    long followingId = rs.getLong(2);
+                    out.computeIfAbsent(followerId, id -> new LongList()).add(followingId);
+                    in.computeIfAbsent(followingId, id -> new LongList()).add(followerId);
+                    edges[0]++;
+                }));
+
+        Map<Long, long[]> loadedFollowing = new ConcurrentHashMap<>(out.size());
+        out.forEach((id, list) -> loadedFollowing.put(id, list.toSortedArray()));
+        Map<Long, long[]> loadedFollowers = new ConcurrentHashMap<>(in.size());
+        in.forEach((id, list) -> loadedFollowers.put(id, list.toSortedArray()));
+
+        synchronized (this) {
+            following = loadedFollowing;
+            followers = loadedFollowers;
+            // Replay is idempotent, so changes already seen by the scan do no harm
+            journal.forEach(change -> {
+                if (change.length == 1) {
+                    detach(change[0]);
+                } else {
+                    update(change[0], change[1], change[2] == 1);
+                }
+            });
+            journal = null;
+            ready = true;
+        }
+
+        System.out.println("Follow graph loaded: " + edges[0] + " edges in "
+                + (System.currentTimeMillis() - started) + " ms");
+    }
+
+    private synchronized void apply(long followerId, long followingId, boolean add) {
+        if (!enabled) {
+            return;
+        }
+        if (journal != null) {
+            journal.add(new long[] { followerId, followingId, add ? 1 : 0 });
+            return;
+        }
+        update(followerId, followingId, add);
+    }
+
+    private synchronized void removeUser(long userId) {
+        if (!enabled) {
+            return;
+        }
+        if (journal != null) {
+            journal.add(new long[] { userId });
+            return;
+        }
+        detach(userId);
+    }
+
+    private void detach(long userId) {
+        long[] out = following.remove(userId);
+        if (out != null) {
+            for (long followingId : out) {
+                followers.computeIfPresent(followingId, (id, ids) -> delete(ids, userId));
+            }
+        }
+        long[] in = followers.remove(userId);
+        if (in != null) {
+            for (long followerId : in) {
+                following.computeIfPresent(followerId, (id, ids) -> delete(ids, userId));
+            }
+        }
+    }
+
+    // Copy-on-write of both adjacency lists
+    private void update(long followerId, long followingId, boolean add) {
+        following.compute(followerId, (id, ids) -> add ? insert(ids, followingId) : delete(ids, followingId));
+        followers.compute(followingId, (id, ids) -> add ? insert(ids, followerId) : delete(ids, followerId));
+    }
+
+    private static long[] insert(long[] ids, long value) {
+        if (ids == null) {
+            return new long[] { value };
+        }
+        int index = Arrays.binarySearch(ids, value);
+        if (index >= 0) {
+            return ids;
+        }
+        int at = -index - 1;
+        long[] copy = new long[ids.length + 1];
+        System.arraycopy(ids, 0, copy, 0, at);
+        copy[at] = value;
+        System.arraycopy(ids, at, copy, at + 1, ids.length - at);
+        return copy;
+    }
+
+    // Null removes the user's entry once the list is empty
+    private static long[] delete(long[] ids, long value) {
+        if (ids == null) {
+            return null;
+        }
+        int at = Arrays.binarySearch(ids, value);
+        if (at < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return null;
+        }
+        long[] copy = new long[ids.length - 1];
+        System.arraycopy(ids, 0, copy, 0, at);
+        System.arraycopy(ids, at + 1, copy, at, ids.length - at - 1);
+        return copy;
+    }
+
+    private static List<Long> among(long[] ids, Collection<Long> userIds) {
+        List<Long> result = new ArrayList<>();
+        for (Long userId : userIds) {
+            if (Arrays.binarySearch(ids, userId) >= 0) {
+                result.add(userId);
+            }
+        }
+        return result;
+    }
+
+    private static List<Long> toList(long[] ids) {
+        List<Long> list = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    // Growable primitive list used while loading
+    private static class LongList {
+        long[] values = new long[4];
+        int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toSortedArray() {
+            long[] result = Arrays.copyOf(values, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+}
@@ -1,28 +1,45 @@
 package com.cocoon._blog.service;
 
+import com.cocoon._blog.dto.Cursor;
+import com.cocoon._blog.dto.CursorPage;
+import com.cocoon._blog.dto.FollowCard;
 import com.cocoon._blog.dto.FollowResponse;
+import com.cocoon._blog.dto.FollowStatus;
 import com.cocoon._blog.entity.Followers;
 import com.cocoon._blog.entity.FollowersId;
-import com.cocoon._blog.entity.NotificationType;
 import com.cocoon._blog.entity.User;
+import com.cocoon._blog.event.UserFollowed;
 import com.cocoon._blog.repository.FollowersRepository;
 import com.cocoon._blog.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class FollowService {
+    private static final int MAX_SLICE_SIZE = 50;
 
     private final FollowersRepository followersRepository;
-    private final NotificationService notificationService;
+    private final OutboxService outboxService;
     private final UserRepository userRepository;
+    private final TimelineService timelineService;
+    private final FollowGraph followGraph;
+    private final SuggestionService suggestionService;
 
     // Follow user
+    @Transactional
     public FollowResponse follow(Long followerId, Long followingId) {
         User followerUser = userRepository.findById(followerId)
                 .orElseThrow(() -> new RuntimeException("Follower user not found"));
@@ -45,20 +62,19 @@ public class FollowService {
                 .followedAt(LocalDateTime.now())
                 .build();
         followersRepository.save(follower);
+        userRepository.adjustFollowingCount(followerId, 1);
+        userRepository.adjustFollowersCount(followingId, 1);
+        timelineService.follow(followerId, followingUser);
+        followGraph.onFollow(followerId, followingId);
+        suggestionService.onFollow(followerId, followingId);
 
-        notificationService.createNotification(
-                followerId,
-                followingId,
-                NotificationType.PROFILE,
-                null,
-                null,
-                "started following you 🎉"
-        );
+        outboxService.publish(new UserFollowed(followerId, followingId));
 
         return makeResponse(followerId, followingId, true, "Followed successfully");
     }
 
     // Unfollow user
+    @Transactional
     public FollowResponse unfollow(Long followerId, Long followingId) {
         User followerUser = userRepository.findById(followerId)
                 .orElseThrow(() -> new RuntimeException("Follower user not found"));
@@ -75,12 +91,33 @@ public class FollowService {
         }
 
         followersRepository.deleteById(id);
+        userRepository.adjustFollowingCount(followerId, -1);
+        userRepository.adjustFollowersCount(followingId, -1);
+        timelineService.unfollow(followerId, followingId);
+        followGraph.onUnfollow(followerId, followingId);
+        suggestionService.onUnfollow(followerId);
         return makeResponse(followerId, followingId, true, "Unfollowed successfully");
     }
 
     // Check if user follows another
     public boolean isFollowing(Long followerId, Long followingId) {
-        return followersRepository.existsById(new FollowersId(followerId, followingId));
+        return followGraph.isFollowing(followerId, followingId);
+    }
+
+    // Both directions for many users: two set lookups (graph or one IN query each), whatever the count
+    public Map<Long, FollowStatus> getFollowStatuses(Long viewerId, Collection<Long> userIds) {
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        Set<Long> following = new HashSet<>(followGraph.followingAmong(viewerId, ids));
+        Set<Long> followedBy = new HashSet<>(followGraph.followersAmong(viewerId, ids));
+
+        Map<Long, FollowStatus> statuses = new LinkedHashMap<>();
+        ids.forEach(id -> statuses.put(id, new FollowStatus(following.contains(id), followedBy.contains(id))));
+        return statuses;
     }
 
     // Helper to build response
@@ -95,9 +132,44 @@ public class FollowService {
 
     // Get followers of a user
     public List<Long> getFollowers(Long userId) {
-        return followersRepository.findByIdFollowingId(userId)
-                .stream()
-                .map(f -> f.getId().getFollowerId())
-                .collect(Collectors.toList());
+        return followGraph.followersOf(userId);
+    }
+
+    //  A page of the user's followers, newest first, with the viewer's follow flags
+    public CursorPage<FollowCard> getFollowersSlice(Long userId, Long viewerId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+        Cursor after = Cursor.decode(cursor);
+
+        List<FollowCard> cards = after == null
+                ? followersRepository.findFollowersFirstPage(userId, Limit.of(limit + 1))
+                : followersRepository.findFollowersAfter(userId, after.getCreatedAt(), after.getId(), Limit.of(limit + 1));
+        return toCursorPage(cards, limit, viewerId);
+    }
+
+    //  A page of the users someone follows, newest first, with the viewer's follow flags
+    public CursorPage<FollowCard> getFollowingSlice(Long userId, Long viewerId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+        Cursor after = Cursor.decode(cursor);
+
+        List<FollowCard> cards = after == null
+                ? followersRepository.findFollowingFirstPage(userId, Limit.of(limit + 1))
+                : followersRepository.findFollowingAfter(userId, after.getCreatedAt(), after.getId(), Limit.of(limit + 1));
+        return toCursorPage(cards, limit, viewerId);
+    }
+
+    private CursorPage<FollowCard> toCursorPage(List<FollowCard> cards, int limit, Long viewerId) {
+        return CursorPage.of(cards, limit,
+                card -> new Cursor(card.getFollowedAt(), card.getId()),
+                page -> withViewerFlags(page, viewerId));
+    }
+
+    // One lookup for the whole page
+    private List<FollowCard> withViewerFlags(List<FollowCard> page, Long viewerId) {
+        if (viewerId != null && !page.isEmpty()) {
+            Set<Long> followed = new HashSet<>(followGraph.followingAmong(viewerId,
+                    page.stream().map(FollowCard::getId).collect(Collectors.toList())));
+            page.forEach(card -> card.setViewerFollows(followed.contains(card.getId())));
+        }
+        return page;
     }
 }
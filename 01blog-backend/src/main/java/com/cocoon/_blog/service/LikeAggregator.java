@@ -0,0 +1,311 @@
+package com.cocoon._blog.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cocoon._blog.repository.PostReactionRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Write-behind buffer for post likes (enabled with {@code likes.write-behind.enabled}).
+ *
+ * Like/unlike intents are recorded in striped in-memory maps keyed by post id,
+ * repeated toggles by the same user collapse into one final state, and a
+ * scheduled flush writes them to post_reactions and the counters in JDBC batches.
+ * Reads merge the persisted values with whatever is still buffered.
+ */
+@Component
+@RequiredArgsConstructor
+public class LikeAggregator {
+
+    private static final int STRIPES = 64;
+
+    private final PostReactionRepository postReactionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Stripe[] stripes = createStripes();
+
+    @Value("${likes.write-behind.enabled:false}")
+    private boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    //  Flip the user's liked state in the buffer and return the new one; concurrent toggles take turns on the stripe
+    public boolean toggle(Long postId, Long userId) {
+        Stripe stripe = stripeFor(postId);
+        synchronized (stripe) {
+            Intent known = stripe.find(postId, userId);
+            if (known != null) {
+                return stripe.apply(postId, userId, known.desired);
+            }
+        }
+
+        // First intent for this pair: look up the persisted state outside the lock
+        boolean persisted = postReactionRepository.existsByUserIdAndPostId(userId, postId);
+
+        synchronized (stripe) {
+            Intent known = stripe.find(postId, userId);
+            return stripe.apply(postId, userId, known != null ? known.desired : persisted);
+        }
+    }
+
+    //  Buffer the desired liked state; recording the current state again changes nothing
+    public void record(Long postId, Long userId, boolean desired) {
+        Stripe stripe = stripeFor(postId);
+
+        synchronized (stripe) {
+            Intent known = stripe.find(postId, userId);
+            if (known != null) {
+                if (known.desired != desired) {
+                    stripe.apply(postId, userId, known.desired);
+                }
+                return;
+            }
+        }
+
+        // First intent for this pair: look up the persisted state outside the lock
+        boolean persisted = postReactionRepository.existsByUserIdAndPostId(userId, postId);
+
+        synchronized (stripe) {
+            Intent known = stripe.find(postId, userId);
+            boolean current = known != null ? known.desired : persisted;
+            if (current != desired) {
+                stripe.apply(postId, userId, current);
+            }
+        }
+    }
+
+    //  Persisted like count plus buffered, not yet flushed, changes
+    public int mergeCount(Long postId, int persistedCount) {
+        if (!enabled) {
+            return persistedCount;
+        }
+        Stripe stripe = stripeFor(postId);
+        synchronized (stripe) {
+            return persistedCount + stripe.delta(postId);
+        }
+    }
+
+    //  Persisted liked flag, overridden by a buffered intent if there is one
+    public boolean mergeLiked(Long postId, Long userId, boolean persistedLiked) {
+        if (!enabled || userId == null) {
+            return persistedLiked;
+        }
+        Stripe stripe = stripeFor(postId);
+        synchronized (stripe) {
+            Intent known = stripe.find(postId, userId);
+            return known != null ? known.desired : persistedLiked;
+        }
+    }
+
+    //  Buffered state that a conditional GET of the post must vary on ("" when nothing is buffered)
+    public String pendingStamp(Long postId, Long userId) {
+        if (!enabled) {
+            return "";
+        }
+        Stripe stripe = stripeFor(postId);
+        synchronized (stripe) {
+            Intent known = userId != null ? stripe.find(postId, userId) : null;
+            return stripe.delta(postId) + (known == null ? "" : known.desired ? "+" : "-");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${likes.write-behind.flush-interval-ms:500}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+
+        List<Long[]> inserts = new ArrayList<>();
+        List<Long[]> deletes = new ArrayList<>();
+
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.beginFlush();
+                stripe.inFlight.forEach((postId, byUser) -> byUser.forEach((userId, intent) ->
+                        (intent.desired ? inserts : deletes).add(new Long[] { userId, postId })));
+            }
+        }
+
+        if (inserts.isEmpty() && deletes.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(inserts, deletes));
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    stripe.inFlight.clear();
+                }
+            }
+        } catch (RuntimeException e) {
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    stripe.abortFlush();
+                }
+            }
+            System.out.println("Like flush failed, will retry: " + e.getMessage());
+        }
+    }
+
+    // One transaction: batched row changes, then counters from the rows actually affected
+    private void write(List<Long[]> inserts, List<Long[]> deletes) {
+        Map<Long, Integer> postDeltas = new HashMap<>();
+        Map<Long, Integer> userDeltas = new HashMap<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        // The join skips pairs whose post or user was deleted while the like was buffered
+        List<Object[]> insertArgs = new ArrayList<>();
+        inserts.forEach(pair -> insertArgs.add(new Object[] { now, pair[0], pair[1] }));
+        int[] inserted = batch(
+                "INSERT INTO post_reactions (user_id, post_id, created_at) " +
+                "SELECT u.id, p.id, ? FROM users u, post p WHERE u.id = ? AND p.id = ? " +
+                "ON CONFLICT DO NOTHING",
+                insertArgs);
+        collectDeltas(inserts, inserted, 1, postDeltas, userDeltas);
+
+        List<Object[]> deleteArgs = new ArrayList<>(deletes);
+        int[] deleted = batch("DELETE FROM post_reactions WHERE user_id = ? AND post_id = ?", deleteArgs);
+        collectDeltas(deletes, deleted, -1, postDeltas, userDeltas);
+
+        batch("UPDATE post SET like_count = like_count + ?, version = version + 1 WHERE id = ?", toRows(postDeltas));
+        batch("UPDATE users SET like_count = like_count + ?, version = version + 1 WHERE id = ?", toRows(userDeltas));
+    }
+
+    private int[] batch(String sql, List<Object[]> args) {
+        return args.isEmpty() ? new int[0] : jdbcTemplate.batchUpdate(sql, args);
+    }
+
+    private void collectDeltas(List<Long[]> pairs, int[] affected, int sign,
+                               Map<Long, Integer> postDeltas, Map<Long, Integer> userDeltas) {
+        for (int i = 0; i < pairs.size(); i++) {
+            // Drivers may report SUCCESS_NO_INFO (-2) for batched statements; trust the intent then
+            if (affected[i] == 0) {
+                continue;
+            }
+            userDeltas.merge(pairs.get(i)[0], sign, Integer::sum);
+            postDeltas.merge(pairs.get(i)[1], sign, Integer::sum);
+        }
+    }
+
+    private List<Object[]> toRows(Map<Long, Integer> deltas) {
+        List<Object[]> rows = new ArrayList<>();
+        deltas.forEach((id, delta) -> {
+            if (delta != 0) {
+                rows.add(new Object[] { delta, id });
+            }
+        });
+        return rows;
+    }
+
+    private Stripe stripeFor(Long postId) {
+        return stripes[(int) ((postId ^ (postId >>> 32)) & (STRIPES - 1))];
+    }
+
+    private static Stripe[] createStripes() {
+        Stripe[] result = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            result[i] = new Stripe();
+        }
+        return result;
+    }
+
+    // Buffered state for one (post, user) pair
+    private static class Intent {
+        final boolean persisted; // state in the database when buffering started
+        boolean desired;
+
+        Intent(boolean persisted, boolean desired) {
+            this.persisted = persisted;
+            this.desired = desired;
+        }
+    }
+
+    // Guarded by its own monitor
+    private static class Stripe {
+        Map<Long, Map<Long, Intent>> pending = new HashMap<>();
+        Map<Long, Map<Long, Intent>> inFlight = new HashMap<>();
+
+        // Latest known intent: pending wins over the batch being written
+        Intent find(Long postId, Long userId) {
+            Intent intent = lookup(pending, postId, userId);
+            return intent != null ? intent : lookup(inFlight, postId, userId);
+        }
+
+        // Flip the current state; a pending toggle back to the persisted state cancels out
+        boolean apply(Long postId, Long userId, boolean current) {
+            Map<Long, Intent> byUser = pending.computeIfAbsent(postId, k -> new HashMap<>());
+            Intent intent = byUser.get(userId);
+            if (intent == null) {
+                byUser.put(userId, new Intent(current, !current));
+                return !current;
+            }
+            intent.desired = !intent.desired;
+            if (intent.desired == intent.persisted) {
+                byUser.remove(userId);
+                if (byUser.isEmpty()) {
+                    pending.remove(postId);
+                }
+            }
+            return intent.desired;
+        }
+
+        int delta(Long postId) {
+            return delta(inFlight.get(postId)) + delta(pending.get(postId));
+        }
+
+        void beginFlush() {
+            inFlight = pending;
+            pending = new HashMap<>();
+        }
+
+        // Put a failed batch back; newer pending intents were based on it, so rebase them
+        void abortFlush() {
+            inFlight.forEach((postId, byUser) -> byUser.forEach((userId, failed) -> {
+                Map<Long, Intent> current = pending.computeIfAbsent(postId, k -> new HashMap<>());
+                Intent newer = current.get(userId);
+                if (newer == null) {
+                    current.put(userId, failed);
+                } else if (newer.desired == failed.persisted) {
+                    current.remove(userId);
+                } else {
+                    current.put(userId, new Intent(failed.persisted, newer.desired));
+                }
+                if (current.isEmpty()) {
+                    pending.remove(postId);
+                }
+            }));
+            inFlight = new HashMap<>();
+        }
+
+        private static int delta(Map<Long, Intent> byUser) {
+            if (byUser == null) {
+                return 0;
+            }
+            int delta = 0;
+            for (Intent intent : byUser.values()) {
+                delta += (intent.desired ? 1 : 0) - (intent.persisted ? 1 : 0);
+            }
+            return delta;
+        }
+
+        private static Intent lookup(Map<Long, Map<Long, Intent>> map, Long postId, Long userId) {
+            Map<Long, Intent> byUser = map.get(postId);
+            return byUser != null ? byUser.get(userId) : null;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.cocoon._blog.service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import com.cocoon._blog.repository.PostReactionRepository;
+
+/**
+ * Per-user set of liked post ids, kept as a sorted long[] so isLiked is a binary search.
+ * Loaded lazily on first use, patched in place by likes and evicted LRU-first.
+ * Users with more likes than {@code likes.cache.max-likes-per-user} are not cached
+ * and fall back to the grouped query.
+ */
+@Component
+public class LikedPostCache {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final PostReactionRepository postReactionRepository;
+    private final int maxLikesPerUser;
+    private final Map<Long, Entry> entries;
+
+    public LikedPostCache(PostReactionRepository postReactionRepository,
+                          @Value("${likes.cache.max-users:10000}") int maxUsers,
+                          @Value("${likes.cache.max-likes-per-user:20000}") int maxLikesPerUser) {
+        this.postReactionRepository = postReactionRepository;
+        this.maxLikesPerUser = maxLikesPerUser;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    /**
+     * Sorted liked post ids of the user, loading them on a miss.
+     * Returns null when the user likes too many posts to cache.
+     */
+    public long[] likedPostIds(Long userId) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(userId);
+            if (entry != null && entry.ids != null) {
+                return entry.ids;
+            }
+            if (entry != null && entry.tooLarge) {
+                return null;
+            }
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(userId, entry);
+            }
+        }
+
+        List<Long> loaded = postReactionRepository.findPostIdsByUserId(userId, Limit.of(maxLikesPerUser + 1));
+        long[] ids = loaded.stream().mapToLong(Long::longValue).toArray();
+
+        synchronized (entries) {
+            // A like that raced with the load makes the snapshot unreliable: don't keep it
+            if (entry.stale || entries.get(userId) != entry) {
+                entries.remove(userId, entry);
+                return ids.length > maxLikesPerUser ? null : ids;
+            }
+            if (ids.length > maxLikesPerUser) {
+                entry.tooLarge = true;
+                return null;
+            }
+            entry.ids = ids;
+            return ids;
+        }
+    }
+
+    public static boolean contains(long[] sortedIds, Long postId) {
+        return Arrays.binarySearch(sortedIds, postId) >= 0;
+    }
+
+    //  Apply a committed like/unlike to a cached set (copy-on-write, readers never see a partial array)
+    public void onLike(Long userId, Long postId, boolean liked) {
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry == null) {
+                return;
+            }
+            if (entry.ids == null) {
+                entry.stale = !entry.tooLarge;
+                return;
+            }
+
+            long[] ids = entry.ids;
+            int index = Arrays.binarySearch(ids, postId);
+            if (liked && index < 0) {
+                int insertAt = -index - 1;
+                if (ids.length >= maxLikesPerUser) {
+                    entry.ids = null;
+                    entry.tooLarge = true;
+                    return;
+                }
+                long[] grown = new long[ids.length + 1];
+                System.arraycopy(ids, 0, grown, 0, insertAt);
+                grown[insertAt] = postId;
+                System.arraycopy(ids, insertAt, grown, insertAt + 1, ids.length - insertAt);
+                entry.ids = grown;
+            } else if (!liked && index >= 0) {
+                long[] shrunk = ids.length == 1 ? EMPTY : new long[ids.length - 1];
+                System.arraycopy(ids, 0, shrunk, 0, index);
+                System.arraycopy(ids, index + 1, shrunk, index, ids.length - index - 1);
+                entry.ids = shrunk;
+            }
+        }
+    }
+
+    public void evict(Long userId) {
+        synchronized (entries) {
+            entries.remove(userId);
+        }
+    }
+
+    // ids == null while loading or when the user is too large to cache
+    private static class Entry {
+        long[] ids;
+        boolean stale;
+        boolean tooLarge;
+    }
+}
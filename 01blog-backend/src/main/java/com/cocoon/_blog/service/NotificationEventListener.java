@@ -0,0 +1,81 @@
+package com.cocoon._blog.service;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.cocoon._blog.entity.NotificationType;
+import com.cocoon._blog.event.CommentCreated;
+import com.cocoon._blog.event.PostCreated;
+import com.cocoon._blog.event.PostLiked;
+import com.cocoon._blog.event.UserFollowed;
+import com.cocoon._blog.repository.PostRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Turns domain events from the outbox into notifications.
+ * Runs inside the dispatcher's per-event transaction: a failure here rolls the
+ * notification back and the event is retried.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationEventListener {
+
+    private final NotificationService notificationService;
+    private final PostRepository postRepository;
+
+    @EventListener
+    public void onPostCreated(PostCreated event) {
+        // Synchronous on the outbox thread: a failure rolls the fan-out back and the event is retried
+        notificationService.notifyFollowersOfPost(event.getAuthorId(), event.getPostId());
+    }
+
+    // Likes fold into one rolling notification per post; unlikes notify nobody
+    @EventListener
+    public void onPostLiked(PostLiked event) {
+        if (!event.isLiked()) {
+            return;
+        }
+        Long ownerId = postRepository.findOwnerIdById(event.getPostId());
+        if (ownerId == null || ownerId.equals(event.getUserId())) {
+            return;
+        }
+        notificationService.createGroupedNotification(
+                event.getUserId(),
+                ownerId,
+                NotificationType.POST,
+                event.getPostId(),
+                "like:" + event.getPostId(),
+                "liked your post 🤩",
+                "and %d others liked your post 🤩"
+        );
+    }
+
+    @EventListener
+    public void onCommentCreated(CommentCreated event) {
+        if (event.getPostOwnerId().equals(event.getUserId())) {
+            return;
+        }
+        notificationService.createNotification(
+                event.getUserId(),
+                event.getPostOwnerId(),
+                NotificationType.COMMENT,
+                event.getPostId(),
+                event.getCommentId(),
+                "💬 commented on your post"
+        );
+    }
+
+    @EventListener
+    public void onUserFollowed(UserFollowed event) {
+        notificationService.createGroupedNotification(
+                event.getFollowerId(),
+                event.getFollowingId(),
+                NotificationType.PROFILE,
+                null,
+                "follow",
+                "started following you 🎉",
+                "and %d others started following you 🎉"
+        );
+    }
+}
@@ -0,0 +1,93 @@
+package com.cocoon._blog.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Monthly range partitions of notifications on created_at (opt-in with
+ * {@code notifications.partitioning.enabled}).
+ *
+ * The table is converted once with db/partition-notifications.sql; from then on this class
+ * creates upcoming partitions ahead of time and retires whole expired months with
+ * DETACH + DROP, which costs no row-by-row deletes and leaves no bloat behind.
+ * Dropping a month removes its unread notifications too: {@code keep-months} is a hard age
+ * limit, unlike the chunked purge, which only removes read notifications.
+ * Partitions are named notifications_pYYYYMM.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationPartitionManager {
+
+    private static final String PREFIX = "notifications_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${notifications.partitioning.enabled:false}")
+    private boolean enabled;
+
+    @Value("${notifications.partitioning.months-ahead:2}")
+    private int monthsAhead;
+
+    @Value("${notifications.partitioning.keep-months:12}")
+    private int keepMonths;
+
+    //  True when partitioning is switched on and the table was actually converted
+    public boolean isActive() {
+        if (!enabled) {
+            return false;
+        }
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid " +
+                "WHERE c.relname = 'notifications')", Boolean.class);
+        if (!Boolean.TRUE.equals(partitioned)) {
+            System.out.println("notifications.partitioning.enabled is set but the table is not partitioned; " +
+                    "run db/partition-notifications.sql first");
+            return false;
+        }
+        return true;
+    }
+
+    //  Make sure the current month and the next few have a partition
+    public void createUpcomingPartitions() {
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth m = month.plusMonths(i);
+            jdbcTemplate.execute(String.format(
+                    "CREATE TABLE IF NOT EXISTS %s%s PARTITION OF notifications FOR VALUES FROM ('%s') TO ('%s')",
+                    PREFIX, m.format(SUFFIX), m.atDay(1), m.plusMonths(1).atDay(1)));
+        }
+    }
+
+    //  Detach and drop months that ended more than keep-months ago; returns how many were dropped
+    public int dropExpiredPartitions() {
+        LocalDate cutoff = YearMonth.now().minusMonths(keepMonths).atDay(1);
+
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = 'notifications'", String.class);
+
+        int dropped = 0;
+        for (String name : partitions) {
+            if (!name.matches(PREFIX + "\\d{6}")) {
+                continue;
+            }
+            YearMonth month = YearMonth.parse(name.substring(PREFIX.length()), SUFFIX);
+            if (!month.plusMonths(1).atDay(1).isAfter(cutoff)) {
+                jdbcTemplate.execute("ALTER TABLE notifications DETACH PARTITION " + name);
+                jdbcTemplate.execute("DROP TABLE " + name);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+}
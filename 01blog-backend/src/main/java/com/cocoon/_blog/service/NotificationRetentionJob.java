@@ -0,0 +1,78 @@
+package com.cocoon._blog.service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.cocoon._blog.repository.NotificationRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Off-peak notification retention.
+ * Read notifications older than {@code notifications.retention.read-days} are deleted in small
+ * chunks (each its own short transaction, with a pause in between) instead of one long DELETE;
+ * unread ones are kept. With partitioning active, whole months older than
+ * {@code notifications.partitioning.keep-months} are dropped as well, unread rows included.
+ * The pauses hold a scheduler thread, so the scheduler pool has more than one.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationRetentionJob {
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationPartitionManager partitionManager;
+    private final UnreadCountCache unreadCountCache;
+
+    @Value("${notifications.retention.read-days:90}")
+    private int readDays;
+
+    @Value("${notifications.retention.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${notifications.retention.pause-ms:200}")
+    private long pauseMs;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preparePartitions() {
+        if (partitionManager.isActive()) {
+            partitionManager.createUpcomingPartitions();
+        }
+    }
+
+    @Scheduled(cron = "${notifications.retention.cron:0 0 4 * * *}")
+    public void purge() {
+        if (partitionManager.isActive()) {
+            partitionManager.createUpcomingPartitions();
+            // Dropped months may have held unread notifications
+            if (partitionManager.dropExpiredPartitions() > 0) {
+                unreadCountCache.clear();
+            }
+        }
+
+        LocalDateTime before = LocalDateTime.now().minusDays(readDays);
+        long total = 0;
+        int deleted;
+        do {
+            deleted = notificationRepository.purgeReadBefore(before, chunkSize);
+            total += deleted;
+            pause();
+        } while (deleted == chunkSize);
+
+        if (total > 0) {
+            System.out.println("Notification retention: deleted " + total + " read notifications");
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,5 +1,10 @@
 package com.cocoon._blog.service;
 
+import static com.cocoon._blog.service.TransactionHooks.afterCommit;
+
+import com.cocoon._blog.dto.Cursor;
+import com.cocoon._blog.dto.CursorPage;
+import com.cocoon._blog.dto.MarkReadRequest;
 import com.cocoon._blog.dto.NotificationDto;
 import com.cocoon._blog.entity.Notification;
 import com.cocoon._blog.entity.NotificationType;
@@ -8,18 +13,38 @@ import com.cocoon._blog.exception.UserBannedException; //  use your custom excep
 import com.cocoon._blog.repository.NotificationRepository;
 import com.cocoon._blog.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
+    private static final int MAX_SLICE_SIZE = 50;
+    private static final int RECENT_ACTORS = 5;
 
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final FollowGraph followGraph;
+    private final NotificationStreamRegistry streamRegistry;
+    private final UnreadCountCache unreadCountCache;
+
+    @Value("${notifications.fanout.chunk-size:5000}")
+    private int fanoutChunkSize;
+
+    @Value("${notifications.aggregate.enabled:true}")
+    private boolean aggregateEnabled;
+
+    @Value("${notifications.aggregate.window-hours:24}")
+    private int aggregateWindowHours;
 
     /**
      * Generic method for creating notifications.
@@ -60,30 +85,188 @@ public class NotificationService {
                 .message(message)
                 .postId(postId)
                 .commentId(commentId)
+                .actorCount(1)
                 .read(false)
                 .createdAt(LocalDateTime.now())
                 .build();
 
         notificationRepository.save(notification);
+        afterCommit(() -> unreadCountCache.adjust(recipientId, 1));
+        streamRegistry.publish(recipientId, toDto(notification));
+    }
+
+    /**
+     * Grouped notification: folds into the recipient's unread row for the same group key
+     * ("Alice and 241 others liked your post") instead of adding a row per actor.
+     * The row moves to the top with the latest actor; once read, or after the window
+     * without activity, the next actor starts a new row.
+     */
+    @Transactional
+    public void createGroupedNotification(
+            Long senderId,
+            Long recipientId,
+            NotificationType type,
+            Long postId,
+            String groupKey,
+            String message,       // e.g. "liked your post 🤩"
+            String groupMessage   // e.g. "and %d others liked your post 🤩", %d = other actors
+    ) {
+        if (!aggregateEnabled) {
+            createNotification(senderId, recipientId, type, postId, null, message);
+            return;
+        }
+
+        User sender = userRepository.findById(senderId)
+                .orElseThrow(() -> new RuntimeException("Sender not found"));
+
+        if (Boolean.TRUE.equals(sender.getBanned())) {
+            throw new UserBannedException("Your account has been banned. You cannot perform this action.");
+        }
+
+        List<Notification> open = notificationRepository.findOpenGroup(
+                recipientId, groupKey, LocalDateTime.now().minusHours(aggregateWindowHours), Limit.of(1));
+
+        if (open.isEmpty()) {
+            Notification notification = Notification.builder()
+                    .sender(sender)
+                    .recipient(userRepository.getReferenceById(recipientId))
+                    .type(type)
+                    .message(message)
+                    .postId(postId)
+                    .groupKey(groupKey)
+                    .actorCount(1)
+                    .recentActorIds(String.valueOf(senderId))
+                    .read(false)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            notificationRepository.save(notification);
+            afterCommit(() -> unreadCountCache.adjust(recipientId, 1));
+            streamRegistry.publish(recipientId, toDto(notification));
+            return;
+        }
+
+        Notification group = open.get(0);
+        List<Long> actors = parseActorIds(group.getRecentActorIds());
+
+        // Someone acting again (e.g. like, unlike, like) is not a new actor
+        if (!actors.remove(senderId)) {
+            group.setActorCount(group.getActorCount() + 1);
+        }
+        actors.add(0, senderId);
+
+        group.setSender(sender);
+        group.setRecentActorIds(actors.stream()
+                .limit(RECENT_ACTORS)
+                .map(String::valueOf)
+                .collect(Collectors.joining(",")));
+        group.setMessage(group.getActorCount() > 1 ? String.format(groupMessage, group.getActorCount() - 1) : message);
+        group.setCreatedAt(LocalDateTime.now());
+
+        // Still unread, so the badge count does not change
+        streamRegistry.publish(recipientId, toDto(group));
+    }
+
+    private static List<Long> parseActorIds(String ids) {
+        List<Long> parsed = new ArrayList<>();
+        if (ids != null && !ids.isEmpty()) {
+            for (String id : ids.split(",")) {
+                parsed.add(Long.valueOf(id));
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Notify every follower of the author about a new post.
+     * Set-based: one INSERT ... SELECT FROM followers per chunk of followers. Runs in the
+     * outbox delivery of PostCreated (off the request thread): all chunks commit together with
+     * the event, and a failure propagates so the whole fan-out is retried without duplicates.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void notifyFollowersOfPost(Long authorId, Long postId) {
+        LocalDateTime now = LocalDateTime.now();
+        long after = 0;
+        Long last;
+        while ((last = notificationRepository.fanOutPostChunk(
+                authorId, postId, "posted something 📢", now, after, fanoutChunkSize)) != null) {
+            after = last;
+        }
+
+        afterCommit(() -> {
+            // Rows were inserted in bulk: cached badge counts of followers are dropped, not guessed
+            List<Long> cached = unreadCountCache.cachedUserIds();
+            if (!cached.isEmpty()) {
+                unreadCountCache.evict(followGraph.followersAmong(authorId, cached));
+            }
+        });
+
+        // Only followers with an open stream are told to reload (sent after commit)
+        Set<Long> connected = streamRegistry.connectedUserIds();
+        if (!connected.isEmpty()) {
+            streamRegistry.signal(followGraph.followersAmong(authorId, connected), "post");
+        }
     }
 
     // Get notifications for a user
     public List<NotificationDto> getUserNotifications(Long userId) {
-        User recipient = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
 
-        return notificationRepository.findByRecipientOrderByCreatedAtDesc(recipient)
+        return notificationRepository.findAllWithSenderByRecipientId(userId)
                 .stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
     }
 
+    // Get a page of notifications by cursor, newest first (no total count)
+    public CursorPage<NotificationDto> getNotificationsSlice(Long userId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_SLICE_SIZE));
+        Cursor after = Cursor.decode(cursor);
+
+        List<Notification> rows = after == null
+                ? notificationRepository.findPageByRecipientId(userId, Limit.of(limit + 1))
+                : notificationRepository.findPageAfter(userId, after.getCreatedAt(), after.getId(), Limit.of(limit + 1));
+
+        return CursorPage.of(rows, limit,
+                n -> new Cursor(n.getCreatedAt(), n.getId()),
+                page -> page.stream().map(this::toDto).collect(Collectors.toList()));
+    }
+
+    // Mark many notifications read with one UPDATE; returns how many changed from unread to read
+    public int markAllAsRead(Long userId, MarkReadRequest request) {
+        int updated;
+        if (request.getUpToId() != null) {
+            // Grouped rows move up with new actors but keep their id, so "up to" is a list position:
+            // with the createdAt the client saw, a group bumped since then stays unread
+            LocalDateTime upTo = request.getUpToCreatedAt() != null
+                    ? request.getUpToCreatedAt()
+                    : notificationRepository.findCreatedAtByIdAndRecipientId(request.getUpToId(), userId).orElse(null);
+            updated = upTo == null ? 0 : notificationRepository.markReadUpTo(userId, upTo, request.getUpToId());
+        } else if (request.getIds() != null && !request.getIds().isEmpty()) {
+            updated = notificationRepository.markReadByIds(userId, request.getIds());
+        } else {
+            throw new RuntimeException("Provide upToId or ids");
+        }
+
+        if (updated > 0) {
+            unreadCountCache.adjust(userId, -updated);
+        }
+        return updated;
+    }
+
+    // Unread badge count, from the cache
+    public long getUnreadCount(Long userId) {
+        return unreadCountCache.get(userId);
+    }
+
     // Mark notification as read
     public void markAsRead(Long id) {
-        Notification n = notificationRepository.findById(id)
+        Long recipientId = notificationRepository.findRecipientIdById(id)
                 .orElseThrow(() -> new RuntimeException("Notification not found"));
-        n.setRead(true);
-        notificationRepository.save(n);
+        if (notificationRepository.markReadIfUnread(id) > 0) {
+            unreadCountCache.adjust(recipientId, -1);
+        }
     }
 
     // Map entity → DTO
@@ -98,7 +281,9 @@ public class NotificationService {
                 n.isRead(),
                 n.getCreatedAt(),
                 n.getPostId(),
-                n.getCommentId()
+                n.getCommentId(),
+                n.getActorCount(),
+                parseActorIds(n.getRecentActorIds())
         );
     }
 }
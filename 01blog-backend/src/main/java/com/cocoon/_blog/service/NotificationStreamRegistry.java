@@ -0,0 +1,145 @@
+package com.cocoon._blog.service;
+
+import static com.cocoon._blog.service.TransactionHooks.afterCommit;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import com.cocoon._blog.dto.NotificationDto;
+
+/**
+ * Open Server-Sent Events connections, by user.
+ *
+ * Each connection has a bounded outgoing queue drained on the sse executor, so a slow
+ * client never blocks the thread that created the notification; a client whose queue
+ * overflows is disconnected (it reconnects and reloads). Heartbeats keep proxies from
+ * closing idle streams and surface dead connections, which are then dropped.
+ */
+@Component
+public class NotificationStreamRegistry {
+
+    private final Map<Long, List<Connection>> connections = new ConcurrentHashMap<>();
+    private final Executor sseExecutor;
+    private final long timeoutMs;
+    private final int bufferSize;
+
+    public NotificationStreamRegistry(@Qualifier("sseExecutor") Executor sseExecutor,
+                                      @Value("${notifications.sse.timeout-ms:1800000}") long timeoutMs,
+                                      @Value("${notifications.sse.buffer-size:50}") int bufferSize) {
+        this.sseExecutor = sseExecutor;
+        this.timeoutMs = timeoutMs;
+        this.bufferSize = bufferSize;
+    }
+
+    public SseEmitter connect(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(userId, emitter);
+
+        connections.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>()).add(connection);
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(e -> remove(connection));
+
+        enqueue(connection, SseEmitter.event().name("connected").data("ok"));
+        return emitter;
+    }
+
+    //  Push a notification to the recipient's open streams once the creating transaction commits
+    public void publish(Long recipientId, NotificationDto notification) {
+        afterCommit(() -> send(recipientId, () -> SseEmitter.event()
+                .id(String.valueOf(notification.getId()))
+                .name("notification")
+                .data(notification)));
+    }
+
+    //  Tell users that notifications were added in bulk, so they reload the first page
+    public void signal(Collection<Long> userIds, String reason) {
+        afterCommit(() -> userIds.forEach(userId -> send(userId, () -> SseEmitter.event().name("sync").data(reason))));
+    }
+
+    public Set<Long> connectedUserIds() {
+        return connections.keySet();
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        connections.values().forEach(list -> list.forEach(
+                connection -> enqueue(connection, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    // Builders are single-use, so each connection gets its own
+    private void send(Long userId, Supplier<SseEventBuilder> event) {
+        List<Connection> list = connections.get(userId);
+        if (list != null) {
+            list.forEach(connection -> enqueue(connection, event.get()));
+        }
+    }
+
+    private void enqueue(Connection connection, SseEventBuilder event) {
+        if (!connection.queue.offer(event)) {
+            // Slow consumer: cut it off instead of buffering without bound
+            remove(connection);
+            connection.emitter.complete();
+            return;
+        }
+        if (connection.draining.compareAndSet(false, true)) {
+            sseExecutor.execute(() -> drain(connection));
+        }
+    }
+
+    // At most one drain per connection at a time, so events keep their order
+    private void drain(Connection connection) {
+        try {
+            SseEventBuilder event;
+            while ((event = connection.queue.poll()) != null) {
+                connection.emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException e) {
+            remove(connection);
+            connection.emitter.completeWithError(e);
+            return;
+        } finally {
+            connection.draining.set(false);
+        }
+        // An event may have been queued between the last poll and the flag reset
+        if (!connection.queue.isEmpty() && connection.draining.compareAndSet(false, true)) {
+            sseExecutor.execute(() -> drain(connection));
+        }
+    }
+
+    private void remove(Connection connection) {
+        connections.computeIfPresent(connection.userId, (id, list) -> {
+            list.remove(connection);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private class Connection {
+        final Long userId;
+        final SseEmitter emitter;
+        final BlockingQueue<SseEventBuilder> queue = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.cocoon._blog.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cocoon._blog.entity.OutboxEvent;
+import com.cocoon._blog.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Delivers stored outbox events to the in-process listeners (Spring application events).
+ *
+ * Each event is claimed, published and marked processed in one transaction, so listener
+ * writes and the processed flag commit together; a failed event is retried on later passes
+ * and given up on after {@code outbox.max-attempts}. Delivery is at least once, in id order.
+ * A pass starts right after a publishing transaction commits, with a periodic poll as a
+ * safety net for events left behind by a restart or a failure.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Executor outboxExecutor;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean requested = new AtomicBoolean();
+
+    @Value("${outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${outbox.retention.days:7}")
+    private int retentionDays;
+
+    @Value("${outbox.retention.chunk-size:5000}")
+    private int chunkSize;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            TransactionTemplate transactionTemplate,
+                            ApplicationEventPublisher eventPublisher,
+                            ObjectMapper objectMapper,
+                            @Qualifier("outboxExecutor") Executor outboxExecutor) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.outboxExecutor = outboxExecutor;
+    }
+
+    //  Ask for a dispatch pass; passes never overlap, a request during one triggers another
+    public void wakeUp() {
+        requested.set(true);
+        if (running.compareAndSet(false, true)) {
+            outboxExecutor.execute(this::run);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-ms:1000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    @Scheduled(cron = "${outbox.retention.cron:0 30 4 * * *}")
+    public void purge() {
+        LocalDateTime before = LocalDateTime.now().minusDays(retentionDays);
+        long total = 0;
+        int deleted;
+        do {
+            deleted = outboxEventRepository.purgeProcessedBefore(before, chunkSize);
+            total += deleted;
+        } while (deleted == chunkSize);
+
+        if (total > 0) {
+            System.out.println("Outbox retention: deleted " + total + " processed events");
+        }
+    }
+
+    private void run() {
+        try {
+            while (requested.getAndSet(false)) {
+                drain();
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Outbox dispatch failed, will retry: " + e.getMessage());
+        } finally {
+            running.set(false);
+        }
+        // A request may have arrived between the last check and the flag reset
+        if (requested.get() && running.compareAndSet(false, true)) {
+            outboxExecutor.execute(this::run);
+        }
+    }
+
+    // One walk over the pending events; failures are left for the next pass
+    private void drain() {
+        long afterId = 0;
+        List<Long> ids;
+        while (!(ids = outboxEventRepository.findPendingIdsAfter(afterId, Limit.of(batchSize))).isEmpty()) {
+            ids.forEach(this::deliver);
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    private void deliver(Long id) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.claim(id).ifPresent(stored -> {
+                eventPublisher.publishEvent(read(stored));
+                stored.setProcessedAt(LocalDateTime.now());
+            }));
+        } catch (RuntimeException e) {
+            outboxEventRepository.markFailed(id, maxAttempts, LocalDateTime.now());
+            System.out.println("Outbox event " + id + " failed: " + e.getMessage());
+        }
+    }
+
+    private Object read(OutboxEvent stored) {
+        Class<?> type = OutboxService.TYPES.get(stored.getType());
+        if (type == null) {
+            throw new RuntimeException("Unknown event type: " + stored.getType());
+        }
+        try {
+            return objectMapper.readValue(stored.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not read event " + stored.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.cocoon._blog.service;
+
+import static com.cocoon._blog.service.TransactionHooks.afterCommit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cocoon._blog.entity.OutboxEvent;
+import com.cocoon._blog.event.CommentCreated;
+import com.cocoon._blog.event.PostCreated;
+import com.cocoon._blog.event.PostLiked;
+import com.cocoon._blog.event.UserFollowed;
+import com.cocoon._blog.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Transactional outbox: domain events are stored in the same transaction as the write
+ * that caused them, so they are delivered if and only if that write commits.
+ * Delivery to the in-process listeners is done by {@link OutboxDispatcher}.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    // Event types that may be stored, by their stored name
+    static final Map<String, Class<?>> TYPES = List.<Class<?>>of(
+            PostCreated.class, PostLiked.class, CommentCreated.class, UserFollowed.class)
+        .stream()
+        .collect(Collectors.toMap(Class::getSimpleName, Function.identity()));
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final OutboxDispatcher outboxDispatcher;
+
+    //  Store an event with the caller's transaction; dispatch starts right after it commits
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(Object event) {
+        String type = event.getClass().getSimpleName();
+        if (!TYPES.containsKey(type)) {
+            throw new RuntimeException("Unknown event type: " + type);
+        }
+
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .type(type)
+                    .payload(objectMapper.writeValueAsString(event))
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize event " + type, e);
+        }
+
+        afterCommit(outboxDispatcher::wakeUp);
+    }
+}
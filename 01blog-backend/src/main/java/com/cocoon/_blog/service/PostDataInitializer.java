@@ -0,0 +1,19 @@
+package com.cocoon._blog.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+// Brings posts written by older versions up to date: lowercase topics, stored excerpts
+@Component
+@RequiredArgsConstructor
+public class PostDataInitializer implements CommandLineRunner {
+
+    private final PostService postService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        postService.normalizeStoredTopics();
+        postService.backfillExcerpts();
+    }
+}
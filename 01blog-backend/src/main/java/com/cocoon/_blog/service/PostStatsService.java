@@ -0,0 +1,57 @@
+package com.cocoon._blog.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.stereotype.Service;
+
+import com.cocoon._blog.repository.PostReactionRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Resolves viewer-specific post state (liked flags) for a whole page of posts,
+ * from LikedPostCache when possible and otherwise with one grouped query.
+ * Like and comment counts live on the Post row itself.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostStatsService {
+
+    private final PostReactionRepository postReactionRepository;
+    private final LikedPostCache likedPostCache;
+
+    //  Load stats for a batch of posts (no query on a cache hit, at most one otherwise)
+    public PostStats load(Collection<Long> postIds, Long currentUserId) {
+        if (postIds.isEmpty() || currentUserId == null) {
+            return new PostStats(Collections.emptySet());
+        }
+
+        long[] liked = likedPostCache.likedPostIds(currentUserId);
+        if (liked != null) {
+            Set<Long> likedIds = new HashSet<>();
+            for (Long postId : postIds) {
+                if (LikedPostCache.contains(liked, postId)) {
+                    likedIds.add(postId);
+                }
+            }
+            return new PostStats(likedIds);
+        }
+
+        return new PostStats(new HashSet<>(postReactionRepository.findLikedPostIds(currentUserId, postIds)));
+    }
+
+    public static class PostStats {
+        private final Set<Long> likedIds;
+
+        PostStats(Set<Long> likedIds) {
+            this.likedIds = likedIds;
+        }
+
+        public boolean isLiked(Long postId) {
+            return likedIds.contains(postId);
+        }
+    }
+}
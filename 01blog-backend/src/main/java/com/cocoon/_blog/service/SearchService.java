@@ -2,18 +2,32 @@ package com.cocoon._blog.service;
 
 import com.cocoon._blog.dto.SearchUserPostResponse;
 import com.cocoon._blog.repository.SearchPostUserRepository;
+import com.cocoon._blog.service.PostStatsService.PostStats;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class SearchService {
 
       private final SearchPostUserRepository searchPostUserRepository;
+      private final PostStatsService postStatsService;
+      private final LikeAggregator likeAggregator;
 
-    public List<SearchUserPostResponse> search(String query) {
-        return searchPostUserRepository.searchPostsAndUsers(query);
+    public List<SearchUserPostResponse> search(String query, Long currentUserId) {
+        List<SearchUserPostResponse> results = searchPostUserRepository.searchPostsAndUsers(query);
+
+        PostStats stats = postStatsService.load(
+                results.stream().map(SearchUserPostResponse::getPostId).collect(Collectors.toList()),
+                currentUserId);
+
+        for (SearchUserPostResponse result : results) {
+            result.setLikeCount(likeAggregator.mergeCount(result.getPostId(), result.getLikeCount()));
+            result.setLiked(likeAggregator.mergeLiked(result.getPostId(), currentUserId, stats.isLiked(result.getPostId())));
+        }
+        return results;
     }
 }
@@ -0,0 +1,227 @@
+package com.cocoon._blog.service;
+
+import static com.cocoon._blog.service.TransactionHooks.afterCommit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.cocoon._blog.dto.UserSuggestion;
+import com.cocoon._blog.repository.UserRepository;
+
+/**
+ * "Who to follow": users followed by the people you follow, ranked by how many of them do.
+ *
+ * Computed from the in-memory follow graph: the second-degree ids are gathered into one
+ * primitive array (at most {@code suggestions.max-scan} edges, which bounds the latency for
+ * users following very active accounts), sorted, and counted run by run. The best
+ * {@code suggestions.cache.size} candidates are cached per user for
+ * {@code suggestions.ttl-seconds}; the user's own follows update or drop the entry.
+ */
+@Service
+public class SuggestionService {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final FollowGraph followGraph;
+    private final UserRepository userRepository;
+    private final int maxScan;
+    private final int cacheSize;
+    private final long ttlMs;
+
+    // Guarded by itself
+    private final Map<Long, Slot> entries;
+
+    public SuggestionService(FollowGraph followGraph,
+                             UserRepository userRepository,
+                             @Value("${suggestions.max-scan:200000}") int maxScan,
+                             @Value("${suggestions.cache.size:50}") int cacheSize,
+                             @Value("${suggestions.ttl-seconds:600}") long ttlSeconds,
+                             @Value("${suggestions.cache.max-users:20000}") int maxUsers) {
+        this.followGraph = followGraph;
+        this.userRepository = userRepository;
+        this.maxScan = maxScan;
+        this.cacheSize = cacheSize;
+        this.ttlMs = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Slot> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    //  Best suggestions for the user, most mutual follows first (empty while the graph is loading)
+    public List<UserSuggestion> suggest(Long userId, int limit) {
+        Entry entry = entry(userId);
+        if (entry == null || entry.ids.length == 0) {
+            return List.of();
+        }
+
+        // A few spare ids in case some candidates are banned
+        int wanted = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < entry.ids.length && ids.size() < wanted * 2; i++) {
+            ids.add(entry.ids[i]);
+        }
+
+        Map<Long, UserSuggestion> cards = userRepository.findSuggestionCards(ids).stream()
+                .collect(Collectors.toMap(UserSuggestion::getId, Function.identity()));
+
+        List<UserSuggestion> result = new ArrayList<>();
+        for (int i = 0; i < ids.size() && result.size() < wanted; i++) {
+            UserSuggestion card = cards.get(ids.get(i));
+            if (card != null) {
+                card.setMutualCount(entry.mutualCounts[i]);
+                result.add(card);
+            }
+        }
+        return result;
+    }
+
+    //  The user followed someone: that account stops being a suggestion right away
+    public void onFollow(Long followerId, Long followingId) {
+        afterCommit(() -> {
+            synchronized (entries) {
+                Slot slot = entries.get(followerId);
+                if (slot == null) {
+                    return;
+                }
+                if (slot.entry != null) {
+                    slot.entry = slot.entry.without(followingId);
+                } else {
+                    // A compute in flight may have read the graph before this follow
+                    entries.remove(followerId);
+                }
+            }
+        });
+    }
+
+    //  The user unfollowed someone: their second degree changed, recompute on the next read
+    public void onUnfollow(Long followerId) {
+        afterCommit(() -> {
+            synchronized (entries) {
+                entries.remove(followerId);
+            }
+        });
+    }
+
+    // Computes outside the lock into a fresh slot; a follow change while computing replaces
+    // or removes the slot, and the result is then returned but not cached
+    private Entry entry(Long userId) {
+        long now = System.currentTimeMillis();
+        Slot slot = new Slot();
+        synchronized (entries) {
+            Slot cached = entries.get(userId);
+            if (cached != null && cached.entry != null && cached.entry.expiresAt > now) {
+                return cached.entry;
+            }
+            entries.put(userId, slot);
+        }
+
+        Entry computed = compute(userId, now + ttlMs);
+        synchronized (entries) {
+            if (entries.get(userId) == slot) {
+                if (computed != null) {
+                    slot.entry = computed;
+                } else {
+                    entries.remove(userId);
+                }
+            }
+        }
+        return computed;
+    }
+
+    private Entry compute(long userId, long expiresAt) {
+        long[] mine = followGraph.followingArray(userId);
+        if (mine == null) {
+            return null;
+        }
+
+        // Second-degree follows, minus the user and whoever they already follow
+        long[] seen = new long[Math.min(maxScan, 1024)];
+        int size = 0;
+        scan:
+        for (long followed : mine) {
+            for (long candidate : followGraph.followingArray(followed)) {
+                if (candidate == userId || Arrays.binarySearch(mine, candidate) >= 0) {
+                    continue;
+                }
+                if (size == seen.length) {
+                    if (size == maxScan) {
+                        break scan;
+                    }
+                    seen = Arrays.copyOf(seen, Math.min(maxScan, size * 2));
+                }
+                seen[size++] = candidate;
+            }
+        }
+        Arrays.sort(seen, 0, size);
+
+        // Equal ids are adjacent: each run is one candidate, its length the score.
+        // A min-heap of {count, id} keeps the best cacheSize runs.
+        PriorityQueue<long[]> best = new PriorityQueue<>((a, b) ->
+                a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(b[1], a[1]));
+        for (int start = 0, end; start < size; start = end) {
+            end = start + 1;
+            while (end < size && seen[end] == seen[start]) {
+                end++;
+            }
+            best.offer(new long[] { end - start, seen[start] });
+            if (best.size() > cacheSize) {
+                best.poll();
+            }
+        }
+
+        int count = best.size();
+        long[] ids = new long[count];
+        int[] mutualCounts = new int[count];
+        for (int i = count - 1; i >= 0; i--) {
+            long[] candidate = best.poll();
+            ids[i] = candidate[1];
+            mutualCounts[i] = (int) candidate[0];
+        }
+        return new Entry(ids, mutualCounts, expiresAt);
+    }
+
+    // Cache cell for one user, empty while its entry is being computed (guarded by entries)
+    private static class Slot {
+        Entry entry;
+    }
+
+    // Immutable ranked candidates, best first
+    private static class Entry {
+        final long[] ids;
+        final int[] mutualCounts;
+        final long expiresAt;
+
+        Entry(long[] ids, int[] mutualCounts, long expiresAt) {
+            this.ids = ids;
+            this.mutualCounts = mutualCounts;
+            this.expiresAt = expiresAt;
+        }
+
+        Entry without(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    long[] keptIds = new long[ids.length - 1];
+                    int[] keptCounts = new int[ids.length - 1];
+                    System.arraycopy(ids, 0, keptIds, 0, i);
+                    System.arraycopy(ids, i + 1, keptIds, i, ids.length - i - 1);
+                    System.arraycopy(mutualCounts, 0, keptCounts, 0, i);
+                    System.arraycopy(mutualCounts, i + 1, keptCounts, i, ids.length - i - 1);
+                    return new Entry(keptIds, keptCounts, expiresAt);
+                }
+            }
+            return this;
+        }
+    }
+}
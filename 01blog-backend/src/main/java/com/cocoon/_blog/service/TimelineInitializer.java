@@ -0,0 +1,17 @@
+package com.cocoon._blog.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class TimelineInitializer implements CommandLineRunner {
+
+    private final TimelineService timelineService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        timelineService.rebuildIfEmpty();
+    }
+}
@@ -0,0 +1,141 @@
+package com.cocoon._blog.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.cocoon._blog.dto.Cursor;
+import com.cocoon._blog.dto.PostSummary;
+import com.cocoon._blog.entity.Post;
+import com.cocoon._blog.entity.TimelineEntry;
+import com.cocoon._blog.entity.User;
+import com.cocoon._blog.repository.PostRepository;
+import com.cocoon._blog.repository.TimelineRepository;
+import com.cocoon._blog.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Materialized per-user home timelines.
+ * Posts are pushed to followers when written (fan-out-on-write); authors with
+ * more than {@code timeline.fanout.max-followers} followers are read on demand instead.
+ */
+@Service
+@RequiredArgsConstructor
+public class TimelineService {
+
+    // Newest-first ordering shared by both feed sources
+    private static final Comparator<PostSummary> NEWEST_FIRST = Comparator
+            .comparing(PostSummary::getCreatedAt).reversed()
+            .thenComparing(Comparator.comparing(PostSummary::getId).reversed());
+
+    private final TimelineRepository timelineRepository;
+    private final FollowGraph followGraph;
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+
+    @Value("${timeline.fanout.max-followers:10000}")
+    private int maxFanoutFollowers;
+
+    @Value("${timeline.backfill.size:50}")
+    private int backfillSize;
+
+    //  Push a new (or restored) post to its readers
+    @Transactional
+    public void publish(Post post) {
+        User author = post.getUser();
+        boolean fanoutOnRead = author.isFanoutOnRead();
+
+        if (!fanoutOnRead && followGraph.followerCount(author.getId()) > maxFanoutFollowers) {
+            userRepository.markFanoutOnRead(author.getId());
+            fanoutOnRead = true;
+        }
+
+        if (fanoutOnRead) {
+            timelineRepository.pushToAuthor(post.getId(), author.getId(), post.getCreatedAt());
+        } else {
+            timelineRepository.fanOut(post.getId(), author.getId(), post.getCreatedAt());
+        }
+    }
+
+    //  Keep ordering in sync when a post's date changes
+    @Transactional
+    public void touch(Post post) {
+        timelineRepository.updateCreatedAt(post.getId(), post.getCreatedAt());
+    }
+
+    //  Remove a deleted or hidden post from every timeline
+    @Transactional
+    public void remove(Long postId) {
+        timelineRepository.deleteByPostId(postId);
+    }
+
+    //  Remove everything a deleted user wrote or received
+    @Transactional
+    public void removeUser(Long userId) {
+        timelineRepository.deleteByUserInvolved(userId);
+    }
+
+    //  New follow: backfill the author's recent posts (large accounts are read on demand)
+    @Transactional
+    public void follow(Long followerId, User author) {
+        if (!author.isFanoutOnRead()) {
+            timelineRepository.backfill(followerId, author.getId(), backfillSize);
+        }
+    }
+
+    @Transactional
+    public void unfollow(Long followerId, Long authorId) {
+        timelineRepository.deleteByUserIdAndAuthorId(followerId, authorId);
+    }
+
+    //  Build timelines from existing data (used once, when the table is empty)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (timelineRepository.count() == 0) {
+            timelineRepository.rebuildAll();
+        }
+    }
+
+    /**
+     * Read up to {@code limit} feed posts after the cursor, newest first.
+     * Merges the user's timeline range scan with the posts of followed large accounts.
+     */
+    @Transactional(readOnly = true)
+    public List<PostSummary> read(Long userId, Cursor after, int limit) {
+        List<TimelineEntry> entries = after == null
+                ? timelineRepository.findFirstPage(userId, Limit.of(limit))
+                : timelineRepository.findAfter(userId, after.getCreatedAt(), after.getId(), Limit.of(limit));
+
+        List<Long> postIds = entries.stream()
+                .map(e -> e.getId().getPostId())
+                .collect(Collectors.toList());
+
+        Map<Long, PostSummary> byId = new LinkedHashMap<>();
+        if (!postIds.isEmpty()) {
+            byId.putAll(postRepository.findSummariesByIds(postIds).stream()
+                    .collect(Collectors.toMap(PostSummary::getId, Function.identity())));
+        }
+
+        List<Long> onReadAuthors = userRepository.findFanoutOnReadFollowingIds(userId);
+        if (!onReadAuthors.isEmpty()) {
+            List<PostSummary> pulled = after == null
+                    ? postRepository.findFeedFirstPage(onReadAuthors, Limit.of(limit))
+                    : postRepository.findFeedAfter(onReadAuthors, after.getCreatedAt(), after.getId(), Limit.of(limit));
+            pulled.forEach(post -> byId.putIfAbsent(post.getId(), post));
+        }
+
+        List<PostSummary> merged = new ArrayList<>(byId.values());
+        merged.sort(NEWEST_FIRST);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+}
@@ -0,0 +1,149 @@
+package com.cocoon._blog.service;
+
+import static com.cocoon._blog.service.TransactionHooks.afterCommit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import com.cocoon._blog.repository.PostRepository;
+
+/**
+ * Newest {@code topics.cache.size} visible post ids per topic, newest first.
+ * New posts are pushed onto the head (dropping the oldest), any other change to a
+ * topic's posts drops its ring, and the next read reloads it with one index scan.
+ * Changes are applied after the writing transaction commits.
+ */
+@Component
+public class TopicFeedCache {
+
+    private final PostRepository postRepository;
+    private final int size;
+
+    // Guarded by itself; a load only installs its ring if the generation did not move meanwhile
+    private final Map<String, Ring> rings = new HashMap<>();
+    private final Map<String, Long> generations = new HashMap<>();
+
+    public TopicFeedCache(PostRepository postRepository,
+                          @Value("${topics.cache.size:200}") int size) {
+        this.postRepository = postRepository;
+        this.size = size;
+    }
+
+    /**
+     * Up to {@code count} post ids following {@code afterId} (from the top when null),
+     * or null when the ring does not reach that far and the database must answer.
+     */
+    public List<Long> page(String topic, Long afterId, int count) {
+        Ring ring = ring(topic);
+
+        int start = 0;
+        if (afterId != null) {
+            start = ring.indexOf(afterId) + 1;
+            if (start == 0) {
+                return null;
+            }
+        }
+
+        int end = start + count;
+        if (end > ring.ids.length && !ring.complete) {
+            return null;
+        }
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = start; i < Math.min(end, ring.ids.length); i++) {
+            ids.add(ring.ids[i]);
+        }
+        return ids;
+    }
+
+    public void onCreate(String topic, Long postId) {
+        afterCommit(() -> {
+            synchronized (rings) {
+                bump(topic);
+                Ring ring = rings.get(topic);
+                if (ring != null) {
+                    rings.put(topic, ring.push(postId, size));
+                }
+            }
+        });
+    }
+
+    //  A post was edited, hidden, restored or deleted
+    public void invalidate(String topic) {
+        afterCommit(() -> {
+            synchronized (rings) {
+                bump(topic);
+                rings.remove(topic);
+            }
+        });
+    }
+
+    //  Posts of several topics went away at once (user deletion)
+    public void invalidateAll() {
+        afterCommit(() -> {
+            synchronized (rings) {
+                rings.keySet().forEach(this::bump);
+                rings.clear();
+            }
+        });
+    }
+
+    private Ring ring(String topic) {
+        long generation;
+        synchronized (rings) {
+            Ring ring = rings.get(topic);
+            if (ring != null) {
+                return ring;
+            }
+            generation = generations.getOrDefault(topic, 0L);
+        }
+
+        List<Long> loaded = postRepository.findTopicPostIds(topic, Limit.of(size));
+        Ring ring = new Ring(loaded.stream().mapToLong(Long::longValue).toArray(), loaded.size() < size);
+
+        synchronized (rings) {
+            if (generations.getOrDefault(topic, 0L) == generation) {
+                rings.put(topic, ring);
+            }
+        }
+        return ring;
+    }
+
+    private void bump(String topic) {
+        generations.merge(topic, 1L, Long::sum);
+    }
+
+    // Immutable; complete means the topic has no posts beyond the ones held
+    private static class Ring {
+        final long[] ids;
+        final boolean complete;
+
+        Ring(long[] ids, boolean complete) {
+            this.ids = ids;
+            this.complete = complete;
+        }
+
+        int indexOf(Long postId) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == postId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        Ring push(Long postId, int size) {
+            int kept = Math.min(ids.length, size - 1);
+            long[] pushed = new long[kept + 1];
+            pushed[0] = postId;
+            System.arraycopy(ids, 0, pushed, 1, kept);
+            return new Ring(pushed, complete && kept == ids.length);
+        }
+    }
+}
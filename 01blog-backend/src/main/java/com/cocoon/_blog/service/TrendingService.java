@@ -0,0 +1,243 @@
+package com.cocoon._blog.service;
+
+import static com.cocoon._blog.service.TransactionHooks.afterCommit;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.cocoon._blog.event.CommentCreated;
+import com.cocoon._blog.event.PostLiked;
+
+import com.cocoon._blog.repository.PostRepository;
+
+/**
+ * Time-decayed engagement ranking ("trending"), kept entirely in memory.
+ *
+ * A post's score is the sum of its event weights, each decayed with a half-life of
+ * {@code trending.half-life-hours}. Since every score decays at the same rate, scores are
+ * stored as ln(sum of weight * e^(lambda * t)): adding an event is one log-add, and
+ * nothing has to be rewritten as time passes. Each board (global and one per topic) keeps
+ * only its {@code trending.capacity} best posts, ordered in a TreeSet with a hash index.
+ */
+@Service
+public class TrendingService {
+
+    private static final double LIKE_WEIGHT = 1.0;
+    private static final double COMMENT_WEIGHT = 3.0;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostRepository postRepository;
+    private final double lambda; // per second
+    private final int capacity;
+    private final int warmupHours;
+
+    // Guarded by this
+    private final Board global;
+    private final Map<String, Board> byTopic = new HashMap<>();
+
+    public TrendingService(JdbcTemplate jdbcTemplate,
+                           PostRepository postRepository,
+                           @Value("${trending.half-life-hours:6}") double halfLifeHours,
+                           @Value("${trending.capacity:500}") int capacity,
+                           @Value("${trending.warmup-hours:48}") int warmupHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postRepository = postRepository;
+        this.lambda = Math.log(2) / (halfLifeHours * 3600);
+        this.capacity = capacity;
+        this.warmupHours = warmupHours;
+        this.global = new Board(capacity);
+    }
+
+    // Outbox events; applied once the delivery commits, so a retried delivery is not counted twice
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostLiked(PostLiked event) {
+        onLike(event.getPostId(), event.isLiked());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentCreated(CommentCreated event) {
+        onComment(event.getPostId(), event.getTopic());
+    }
+
+    public void onLike(Long postId, boolean liked) {
+        String topic;
+        synchronized (this) {
+            topic = global.topicOf(postId);
+        }
+        // Posts not on the global board yet: one primary key lookup for the topic,
+        // skipping posts deleted or hidden by the time the event arrives
+        if (topic == null) {
+            topic = postRepository.findVisibleTopicById(postId);
+            if (topic == null) {
+                return;
+            }
+        }
+        record(postId, topic.isEmpty() ? null : topic, liked ? LIKE_WEIGHT : -LIKE_WEIGHT, LocalDateTime.now());
+    }
+
+    public void onComment(Long postId, String topic) {
+        record(postId, topic, COMMENT_WEIGHT, LocalDateTime.now());
+    }
+
+    //  Drop a deleted or hidden post from every board, once that change commits
+    public void forget(Long postId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                global.remove(postId);
+                byTopic.values().forEach(board -> board.remove(postId));
+            }
+        });
+    }
+
+    //  Ids of the best {@code limit} posts, globally (topic == null) or in one topic
+    public synchronized List<Long> top(String topic, int limit) {
+        Board board = topic == null ? global : byTopic.get(topic);
+        return board == null ? List.of() : board.top(limit);
+    }
+
+    // Rebuild recent scores after a restart from hourly buckets of the last warmup window
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Timestamp since = Timestamp.valueOf(LocalDateTime.now().minusHours(warmupHours));
+        String buckets =
+            "SELECT e.post_id, p.topic, date_trunc('hour', e.created_at) AS bucket, COUNT(*) AS events " +
+            "FROM %s e JOIN post p ON p.id = e.post_id " +
+            "WHERE e.created_at > ? AND p.is_hidden = false GROUP BY e.post_id, p.topic, bucket";
+
+        load(String.format(buckets, "post_reactions"), since, LIKE_WEIGHT);
+        load(String.format(buckets, "comment"), since, COMMENT_WEIGHT);
+    }
+
+    private void load(String sql, Timestamp since, double weight) {
+        jdbcTemplate.query(sql, rs -> {
+            record(rs.getLong("post_id"), rs.getString("topic"),
+                    weight * rs.getLong("events"), rs.getTimestamp("bucket").toLocalDateTime());
+        }, since);
+    }
+
+    private synchronized void record(Long postId, String topic, double weight, LocalDateTime at) {
+        double logWeight = Math.log(Math.abs(weight)) + lambda * at.toEpochSecond(ZoneOffset.UTC);
+
+        global.apply(postId, topic, weight, logWeight);
+        if (topic != null) {
+            byTopic.computeIfAbsent(topic, t -> new Board(capacity)).apply(postId, topic, weight, logWeight);
+        }
+    }
+
+    // ln(e^a + e^b) and ln(e^a - e^b) without overflowing
+    private static double logAdd(double a, double b) {
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+    }
+
+    private static double logSubtract(double a, double b) {
+        return b >= a ? Double.NEGATIVE_INFINITY : a + Math.log1p(-Math.exp(b - a));
+    }
+
+    private static class Entry {
+        final Long postId;
+        final String topic;
+        final double logScore;
+        final double units; // undecayed sum of the weights behind the score
+
+        Entry(Long postId, String topic, double logScore, double units) {
+            this.postId = postId;
+            this.topic = topic;
+            this.logScore = logScore;
+            this.units = units;
+        }
+    }
+
+    // Bounded top-K: the ordered set gives the ranking and the lowest entry to evict
+    private static class Board {
+        private static final Comparator<Entry> BEST_FIRST = Comparator
+                .comparingDouble((Entry e) -> e.logScore).reversed()
+                .thenComparing(e -> e.postId);
+
+        final int capacity;
+        final TreeSet<Entry> ranking = new TreeSet<>(BEST_FIRST);
+        final Map<Long, Entry> index = new HashMap<>();
+
+        Board(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void apply(Long postId, String topic, double weight, double logWeight) {
+            Entry current = index.get(postId);
+            if (current == null && weight < 0) {
+                return;
+            }
+
+            double logScore;
+            double units;
+            if (current == null) {
+                logScore = logWeight;
+                units = weight;
+            } else if (weight > 0) {
+                logScore = logAdd(current.logScore, logWeight);
+                units = current.units + weight;
+            } else {
+                // The event being taken back was counted earlier and has decayed by an unknown amount:
+                // remove at most its average share of the score, so the rest of the post's engagement survives
+                units = current.units + weight;
+                double logShare = current.logScore + Math.log(-weight / current.units);
+                logScore = units <= 0 ? Double.NEGATIVE_INFINITY
+                        : logSubtract(current.logScore, Math.min(logWeight, logShare));
+            }
+            remove(postId);
+            if (logScore == Double.NEGATIVE_INFINITY) {
+                return;
+            }
+
+            // A full board only admits a post that beats its weakest entry
+            if (index.size() >= capacity) {
+                Entry weakest = ranking.last();
+                if (weakest.logScore >= logScore) {
+                    return;
+                }
+                remove(weakest.postId);
+            }
+
+            Entry entry = new Entry(postId, topic, logScore, units);
+            ranking.add(entry);
+            index.put(postId, entry);
+        }
+
+        void remove(Long postId) {
+            Entry entry = index.remove(postId);
+            if (entry != null) {
+                ranking.remove(entry);
+            }
+        }
+
+        String topicOf(Long postId) {
+            Entry entry = index.get(postId);
+            return entry == null ? null : entry.topic;
+        }
+
+        List<Long> top(int limit) {
+            List<Long> ids = new ArrayList<>(Math.min(limit, ranking.size()));
+            for (Entry entry : ranking) {
+                if (ids.size() == limit) {
+                    break;
+                }
+                ids.add(entry.postId);
+            }
+            return ids;
+        }
+    }
+}
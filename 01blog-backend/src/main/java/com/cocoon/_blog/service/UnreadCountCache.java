@@ -0,0 +1,100 @@
+package com.cocoon._blog.service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.cocoon._blog.repository.NotificationRepository;
+
+/**
+ * Unread notification count per user, for the header badge.
+ * Loaded with one COUNT on a miss, then adjusted in place by creates and mark-read;
+ * bulk changes evict instead. LRU-bounded by {@code notifications.unread-cache.max-users}.
+ */
+@Component
+public class UnreadCountCache {
+
+    private final NotificationRepository notificationRepository;
+    private final Map<Long, Entry> entries;
+
+    public UnreadCountCache(NotificationRepository notificationRepository,
+                            @Value("${notifications.unread-cache.max-users:50000}") int maxUsers) {
+        this.notificationRepository = notificationRepository;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    public long get(Long userId) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(userId);
+            if (entry != null && entry.loaded) {
+                return entry.count;
+            }
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(userId, entry);
+            }
+        }
+
+        long count = notificationRepository.countByRecipientIdAndReadFalse(userId);
+
+        synchronized (entries) {
+            // A change that raced with the COUNT may or may not be in it: don't keep the value
+            if (entry.stale || entries.get(userId) != entry) {
+                entries.remove(userId, entry);
+                return count;
+            }
+            entry.count = count;
+            entry.loaded = true;
+            return count;
+        }
+    }
+
+    public void adjust(Long userId, long delta) {
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry == null) {
+                return;
+            }
+            if (!entry.loaded) {
+                entry.stale = true;
+                return;
+            }
+            entry.count = Math.max(0, entry.count + delta);
+        }
+    }
+
+    //  Users whose count changed by an unknown amount (bulk inserts or updates)
+    public void evict(Collection<Long> userIds) {
+        synchronized (entries) {
+            userIds.forEach(entries::remove);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public List<Long> cachedUserIds() {
+        synchronized (entries) {
+            return List.copyOf(entries.keySet());
+        }
+    }
+
+    private static class Entry {
+        long count;
+        boolean loaded;
+        boolean stale;
+    }
+}
@@ -0,0 +1,45 @@
+-- One-time conversion of notifications into monthly range partitions on created_at.
+-- Run in a maintenance window (the application stopped), then set
+-- notifications.partitioning.enabled=true: NotificationPartitionManager keeps creating
+-- upcoming months and drops months older than notifications.partitioning.keep-months.
+
+BEGIN;
+
+UPDATE notifications SET created_at = now() WHERE created_at IS NULL;
+
+ALTER TABLE notifications RENAME TO notifications_unpartitioned;
+
+-- The partition key has to be part of the primary key
+CREATE TABLE notifications (
+    LIKE notifications_unpartitioned INCLUDING DEFAULTS INCLUDING IDENTITY,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+DO $$
+DECLARE
+    m date := date_trunc('month', COALESCE((SELECT MIN(created_at) FROM notifications_unpartitioned), now()));
+BEGIN
+    WHILE m <= date_trunc('month', now()) + interval '2 months' LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+                       'notifications_p' || to_char(m, 'YYYYMM'), m, m + interval '1 month');
+        m := m + interval '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO notifications SELECT * FROM notifications_unpartitioned;
+
+SELECT setval(pg_get_serial_sequence('notifications', 'id'),
+              (SELECT COALESCE(MAX(id), 0) + 1 FROM notifications), false);
+
+ALTER TABLE notifications ADD FOREIGN KEY (recipient_id) REFERENCES users (id);
+ALTER TABLE notifications ADD FOREIGN KEY (sender_id) REFERENCES users (id);
+
+-- Drop the old table first: its indexes still hold the names reused below
+DROP TABLE notifications_unpartitioned;
+
+-- Indexes on the parent are created on every partition, so each one stays month-sized
+CREATE INDEX idx_notification_recipient_created ON notifications (recipient_id, created_at, id);
+CREATE INDEX idx_notification_recipient_group ON notifications (recipient_id, group_key);
+CREATE INDEX idx_notification_created ON notifications (created_at);
+
+COMMIT;
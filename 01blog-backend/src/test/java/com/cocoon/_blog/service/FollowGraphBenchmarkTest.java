@@ -0,0 +1,96 @@
+package com.cocoon._blog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cocoon._blog.entity.FollowersId;
+import com.cocoon._blog.repository.FollowersRepository;
+
+/**
+ * The in-memory follow graph against the FollowersRepository queries it replaces, on the same
+ * seeded table: isFollowing / followersOf / followerCount timed both ways, answers compared.
+ */
+@DataJpaTest(properties = { "spring.jpa.show-sql=false", "spring.jpa.properties.hibernate.format_sql=false" })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FollowGraphBenchmarkTest {
+
+    private static final int USERS = 5_000;
+    private static final int FOLLOWS_PER_USER = 40;
+    private static final int QUERIES = 1_000;
+
+    @Autowired
+    private FollowersRepository followersRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void graphAnswersLikeTheRepositoryAndFaster() {
+        jdbcTemplate.execute("CALL RAND(42)");
+        jdbcTemplate.update("INSERT INTO followers (follower_id, following_id, followed_at) " +
+                "SELECT DISTINCT follower_id, following_id, CURRENT_TIMESTAMP FROM (" +
+                "SELECT (r.\"X\" - 1) / ? + 1 AS follower_id, CAST(POWER(RAND(), 2) * ? AS BIGINT) + 1 AS following_id " +
+                "FROM SYSTEM_RANGE(1, ?) r) edges WHERE follower_id <> following_id",
+                FOLLOWS_PER_USER, USERS, (long) USERS * FOLLOWS_PER_USER);
+
+        FollowGraph graph = new FollowGraph(followersRepository, jdbcTemplate, transactionTemplate, true, 10_000);
+        FollowGraph repositoryOnly = new FollowGraph(followersRepository, jdbcTemplate, transactionTemplate, false, 10_000);
+        graph.load();
+
+        Random random = new Random(7);
+        long[] followers = new long[QUERIES];
+        long[] followings = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            followers[i] = 1 + random.nextInt(USERS);
+            followings[i] = 1 + random.nextInt(USERS);
+        }
+
+        for (int i = 0; i < QUERIES; i++) {
+            assertThat(graph.isFollowing(followers[i], followings[i]))
+                    .isEqualTo(followersRepository.existsById(new FollowersId(followers[i], followings[i])));
+            assertThat(graph.followersOf(followings[i]))
+                    .containsExactlyInAnyOrderElementsOf(followersRepository.findFollowerIdsByFollowingId(followings[i]));
+            assertThat(graph.followerCount(followings[i]))
+                    .isEqualTo(followersRepository.countById_FollowingId(followings[i]));
+        }
+
+        System.out.printf("Follow graph vs repository (%,d users, %,d queries each, us per call):%n",
+                USERS, QUERIES);
+        report("isFollowing", i -> graph.isFollowing(followers[i], followings[i]),
+                i -> repositoryOnly.isFollowing(followers[i], followings[i]));
+        report("followersOf", i -> graph.followersOf(followings[i]),
+                i -> repositoryOnly.followersOf(followings[i]));
+        report("followerCount", i -> graph.followerCount(followings[i]),
+                i -> repositoryOnly.followerCount(followings[i]));
+    }
+
+    // Warm up both paths once, then time a second pass
+    private static void report(String name, IntConsumer graphCall, IntConsumer repositoryCall) {
+        time(graphCall);
+        time(repositoryCall);
+        double graphMicros = time(graphCall) / 1e3 / QUERIES;
+        double repositoryMicros = time(repositoryCall) / 1e3 / QUERIES;
+        System.out.printf("  %-14s graph %8.2f   repository %8.2f%n", name, graphMicros, repositoryMicros);
+    }
+
+    private static long time(IntConsumer call) {
+        long started = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            call.accept(i);
+        }
+        return System.nanoTime() - started;
+    }
+}
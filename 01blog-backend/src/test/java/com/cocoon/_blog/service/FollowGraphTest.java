@@ -0,0 +1,109 @@
+package com.cocoon._blog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cocoon._blog.repository.FollowersRepository;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * The in-memory adjacency arrays must agree with the followers table, after the
+ * streaming load and after follows, unfollows and user deletions.
+ */
+class FollowGraphTest {
+
+    private static final int USERS = 300;
+    private static final int EDGES = 5000;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private FollowGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:follows-" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE followers (follower_id BIGINT NOT NULL, following_id BIGINT NOT NULL, " +
+                "PRIMARY KEY (follower_id, following_id))");
+
+        Random random = new Random(42);
+        for (int i = 0; i < EDGES; i++) {
+            long followerId = 1 + random.nextInt(USERS);
+            long followingId = 1 + random.nextInt(USERS);
+            if (followerId != followingId) {
+                jdbcTemplate.update("MERGE INTO followers KEY (follower_id, following_id) VALUES (?, ?)",
+                        followerId, followingId);
+            }
+        }
+
+        graph = new FollowGraph(mock(FollowersRepository.class), jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), true, 500);
+        graph.load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void loadMatchesTheFollowersTable() {
+        assertThat(graph.isReady()).isTrue();
+        assertMatchesTable();
+    }
+
+    @Test
+    void followsUnfollowsAndDeletionsKeepMatchingTheTable() {
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            long followerId = 1 + random.nextInt(USERS);
+            long followingId = 1 + random.nextInt(USERS);
+            if (followerId == followingId) {
+                continue;
+            }
+            if (graph.isFollowing(followerId, followingId)) {
+                jdbcTemplate.update("DELETE FROM followers WHERE follower_id = ? AND following_id = ?",
+                        followerId, followingId);
+                graph.onUnfollow(followerId, followingId);
+            } else {
+                jdbcTemplate.update("INSERT INTO followers VALUES (?, ?)", followerId, followingId);
+                graph.onFollow(followerId, followingId);
+            }
+        }
+
+        for (long userId = 1; userId <= USERS; userId += 37) {
+            jdbcTemplate.update("DELETE FROM followers WHERE follower_id = ? OR following_id = ?", userId, userId);
+            graph.onUserDeleted(userId);
+        }
+
+        assertMatchesTable();
+        assertThat(graph.followersOf(1L)).isEmpty();
+        assertThat(graph.followingOf(1L)).isEmpty();
+    }
+
+    private void assertMatchesTable() {
+        for (long userId = 1; userId <= USERS; userId++) {
+            List<Long> following = jdbcTemplate.queryForList(
+                    "SELECT following_id FROM followers WHERE follower_id = ? ORDER BY following_id", Long.class, userId);
+            List<Long> followers = jdbcTemplate.queryForList(
+                    "SELECT follower_id FROM followers WHERE following_id = ? ORDER BY follower_id", Long.class, userId);
+
+            assertThat(graph.followingOf(userId)).as("following of %d", userId).isEqualTo(following);
+            assertThat(graph.followersOf(userId)).as("followers of %d", userId).isEqualTo(followers);
+            assertThat(graph.followingCount(userId)).isEqualTo(following.size());
+            assertThat(graph.followerCount(userId)).isEqualTo(followers.size());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.cocoon._blog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cocoon._blog.repository.PostReactionRepository;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Many users hammering the like button of one post at once: the synchronous path
+ * (one transaction per toggle, all updating the same post row) against the write-behind
+ * aggregator flushing in the background. Both must end in the same state; the
+ * throughput of each is printed for comparison.
+ */
+class LikeAggregatorStressTest {
+
+    private static final long POST_ID = 1;
+    private static final int USERS = 400;
+    private static final int THREADS = 16;
+    private static final int BASE_TOGGLES = 20;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:likes-" + UUID.randomUUID()
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=30000");
+        dataSource.setMaximumPoolSize(THREADS + 2);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, like_count INT DEFAULT 0, version BIGINT DEFAULT 0)");
+        jdbcTemplate.execute("CREATE TABLE post (id BIGINT PRIMARY KEY, like_count INT DEFAULT 0, version BIGINT DEFAULT 0)");
+        jdbcTemplate.execute("CREATE TABLE post_reactions (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "user_id BIGINT NOT NULL, post_id BIGINT NOT NULL, created_at TIMESTAMP, UNIQUE (user_id, post_id))");
+        jdbcTemplate.update("INSERT INTO post (id) VALUES (?)", POST_ID);
+        for (long userId = 1; userId <= USERS; userId++) {
+            jdbcTemplate.update("INSERT INTO users (id) VALUES (?)", userId);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void writeBehindEndsInTheSameStateAsSynchronousToggles() throws Exception {
+        long synchronousNanos = hammer(this::synchronousToggle);
+        assertFinalState();
+
+        jdbcTemplate.update("DELETE FROM post_reactions");
+        jdbcTemplate.update("UPDATE post SET like_count = 0");
+        jdbcTemplate.update("UPDATE users SET like_count = 0");
+
+        LikeAggregator aggregator = writeBehindAggregator();
+        ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor();
+        flusher.scheduleWithFixedDelay(aggregator::flush, 5, 5, TimeUnit.MILLISECONDS);
+        long bufferedNanos = hammer(userId -> aggregator.toggle(POST_ID, userId));
+        flusher.shutdown();
+        assertThat(flusher.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        aggregator.flush();
+        assertFinalState();
+
+        int toggles = totalToggles();
+        System.out.printf("Like toggles under contention (%d users, %d threads, 1 post):%n", USERS, THREADS);
+        System.out.printf("  synchronous:  %,.0f toggles/s%n", toggles / (synchronousNanos / 1e9));
+        System.out.printf("  write-behind: %,.0f toggles/s%n", toggles / (bufferedNanos / 1e9));
+    }
+
+    @Test
+    void concurrentClicksBySameUserAlternate() throws Exception {
+        LikeAggregator aggregator = writeBehindAggregator();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<Boolean>> clicks = new ArrayList<>();
+        for (int i = 0; i < 101; i++) {
+            clicks.add(pool.submit(() -> aggregator.toggle(POST_ID, 1L)));
+        }
+        int likes = 0;
+        for (Future<Boolean> click : clicks) {
+            likes += click.get(1, TimeUnit.MINUTES) ? 1 : 0;
+        }
+        pool.shutdown();
+
+        // Every click saw a distinct state: 51 likes and 50 unlikes, ending liked
+        assertThat(likes).isEqualTo(51);
+        assertThat(aggregator.mergeLiked(POST_ID, 1L, false)).isTrue();
+        assertThat(aggregator.mergeCount(POST_ID, 0)).isEqualTo(1);
+    }
+
+    // The pre-aggregator path: look up user, post and reaction, then write the row and both counters
+    private void synchronousToggle(long userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForObject("SELECT id FROM users WHERE id = ?", Long.class, userId);
+            jdbcTemplate.queryForObject("SELECT id FROM post WHERE id = ?", Long.class, POST_ID);
+            int delta = jdbcTemplate.update("DELETE FROM post_reactions WHERE user_id = ? AND post_id = ?",
+                    userId, POST_ID) > 0 ? -1 : 1;
+            if (delta > 0) {
+                jdbcTemplate.update("INSERT INTO post_reactions (user_id, post_id, created_at) VALUES (?, ?, ?)",
+                        userId, POST_ID, Timestamp.valueOf(LocalDateTime.now()));
+            }
+            jdbcTemplate.update("UPDATE post SET like_count = like_count + ?, version = version + 1 WHERE id = ?",
+                    delta, POST_ID);
+            jdbcTemplate.update("UPDATE users SET like_count = like_count + ?, version = version + 1 WHERE id = ?",
+                    delta, userId);
+        });
+    }
+
+    private LikeAggregator writeBehindAggregator() {
+        PostReactionRepository repository = mock(PostReactionRepository.class);
+        when(repository.existsByUserIdAndPostId(anyLong(), anyLong())).thenAnswer(call -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM post_reactions WHERE user_id = ? AND post_id = ?",
+                Integer.class, call.getArgument(0), call.getArgument(1)) > 0);
+
+        LikeAggregator aggregator = new LikeAggregator(repository, jdbcTemplate, transactionTemplate);
+        ReflectionTestUtils.setField(aggregator, "enabled", true);
+        return aggregator;
+    }
+
+    // Each user is driven by one thread (so its toggles stay ordered); all threads hit the same post
+    private long hammer(LongConsumer toggle) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        long started = System.nanoTime();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int lane = thread;
+            workers.add(pool.submit(() -> {
+                for (int round = 0; round <= BASE_TOGGLES; round++) {
+                    for (long userId = lane + 1; userId <= USERS; userId += THREADS) {
+                        if (round < toggles(userId)) {
+                            toggle.accept(userId);
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - started;
+        pool.shutdown();
+        return elapsed;
+    }
+
+    // An odd number of toggles leaves the post liked
+    private static int toggles(long userId) {
+        return userId % 3 == 0 ? BASE_TOGGLES + 1 : BASE_TOGGLES;
+    }
+
+    private static int totalToggles() {
+        int total = 0;
+        for (long userId = 1; userId <= USERS; userId++) {
+            total += toggles(userId);
+        }
+        return total;
+    }
+
+    private void assertFinalState() {
+        List<Long> expected = new ArrayList<>();
+        for (long userId = 1; userId <= USERS; userId++) {
+            if (toggles(userId) % 2 == 1) {
+                expected.add(userId);
+            }
+        }
+
+        assertThat(jdbcTemplate.queryForList(
+                "SELECT user_id FROM post_reactions WHERE post_id = ? ORDER BY user_id", Long.class, POST_ID))
+                .containsExactlyElementsOf(expected);
+        assertThat(jdbcTemplate.queryForObject("SELECT like_count FROM post WHERE id = ?", Integer.class, POST_ID))
+                .isEqualTo(expected.size());
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM users WHERE like_count = 1 ORDER BY id", Long.class))
+                .containsExactlyElementsOf(expected);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE like_count NOT IN (0, 1)", Integer.class))
+                .isZero();
+    }
+}
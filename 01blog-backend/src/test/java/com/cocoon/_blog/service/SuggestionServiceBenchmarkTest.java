@@ -0,0 +1,115 @@
+package com.cocoon._blog.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.cocoon._blog.dto.UserSuggestion;
+import com.cocoon._blog.repository.FollowersRepository;
+import com.cocoon._blog.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Loads a synthetic follow graph of over a million edges (popularity skewed towards low ids,
+ * like real accounts) and times the graph load and cold suggestion computes. The rankings of
+ * a sample of users are checked against the same question asked of the followers table in SQL.
+ */
+class SuggestionServiceBenchmarkTest {
+
+    private static final int USERS = 20_000;
+    private static final int FOLLOWS_PER_USER = 55;
+    private static final int LIMIT = 50;
+    private static final int SAMPLE = 200;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:graph-" + UUID.randomUUID() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE followers (follower_id BIGINT NOT NULL, following_id BIGINT NOT NULL, " +
+                "PRIMARY KEY (follower_id, following_id))");
+        jdbcTemplate.execute("CALL RAND(42)");
+        jdbcTemplate.update("INSERT INTO followers SELECT DISTINCT follower_id, following_id FROM (" +
+                "SELECT (r.\"X\" - 1) / ? + 1 AS follower_id, CAST(POWER(RAND(), 2) * ? AS BIGINT) + 1 AS following_id " +
+                "FROM SYSTEM_RANGE(1, ?) r) edges WHERE follower_id <> following_id",
+                FOLLOWS_PER_USER, USERS, (long) USERS * FOLLOWS_PER_USER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void suggestionsOverAMillionEdgesMatchSql() {
+        long edges = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM followers", Long.class);
+        assertThat(edges).isGreaterThanOrEqualTo(1_000_000);
+
+        FollowGraph graph = new FollowGraph(mock(FollowersRepository.class), jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), true, 10_000);
+        long started = System.nanoTime();
+        graph.load();
+        long loadNanos = System.nanoTime() - started;
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findSuggestionCards(anyCollection())).thenAnswer(call -> {
+            List<UserSuggestion> cards = new ArrayList<>();
+            for (Long id : call.<Collection<Long>>getArgument(0)) {
+                cards.add(new UserSuggestion(id, "first" + id, "last" + id, null));
+            }
+            return cards;
+        });
+        SuggestionService suggestions = new SuggestionService(graph, userRepository, 200_000, LIMIT, 600, USERS);
+
+        long computeNanos = 0;
+        for (long userId = 1; userId <= USERS; userId += USERS / SAMPLE) {
+            started = System.nanoTime();
+            List<UserSuggestion> result = suggestions.suggest(userId, LIMIT);
+            computeNanos += System.nanoTime() - started;
+
+            assertThat(result).extracting(UserSuggestion::getId)
+                    .as("suggestions for %d", userId).isEqualTo(expectedIds(userId));
+            List<Map<String, Object>> expected = expected(userId);
+            for (int i = 0; i < result.size(); i++) {
+                assertThat(result.get(i).getMutualCount())
+                        .isEqualTo(((Number) expected.get(i).get("mutual")).intValue());
+            }
+        }
+
+        System.out.printf("Follow graph: %,d users, %,d edges%n", USERS, edges);
+        System.out.printf("  load:    %,d ms%n", loadNanos / 1_000_000);
+        System.out.printf("  suggest: %,.2f ms per cold compute (%d users)%n", computeNanos / 1e6 / SAMPLE, SAMPLE);
+    }
+
+    private List<Long> expectedIds(long userId) {
+        return expected(userId).stream().map(row -> ((Number) row.get("id")).longValue()).toList();
+    }
+
+    // Users followed by the user's follows, excluding the user and whoever they already follow
+    private List<Map<String, Object>> expected(long userId) {
+        return jdbcTemplate.queryForList(
+                "SELECT f2.following_id AS id, COUNT(*) AS mutual FROM followers f1 " +
+                "JOIN followers f2 ON f2.follower_id = f1.following_id " +
+                "WHERE f1.follower_id = ? AND f2.following_id <> ? " +
+                "AND f2.following_id NOT IN (SELECT following_id FROM followers WHERE follower_id = ?) " +
+                "GROUP BY f2.following_id ORDER BY mutual DESC, id LIMIT ?",
+                userId, userId, userId, LIMIT);
+    }
+}